@@ -0,0 +1,165 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dal.ItemBookingBounds;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Последнее и ближайшее бронирование по вещам владельца на встроенной H2:
+ * entityScan - прежний путь (все Booking вещей владельца через findAllByItemIdIn и группировка в Java),
+ * aggregate - BookingRepository.findBookingBoundsByItemIds (max/min с группировкой в SQL).
+ * Бронирования равномерно распределены по всем вещам, владельцу принадлежит часть из них.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class BookingBoundsH2Benchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int bookings;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"100"})
+    private int ownerItems;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingRepository bookingRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private List<Long> ownerItemIds;
+
+    private Instant now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:bounds;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entityScan(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Тот же запрос, что строил удаленный BookingRepository.findAllByItemIdIn
+            List<Booking> itemBookings = entityManager
+                    .createQuery("select b from Booking b where b.item.id in ?1", Booking.class)
+                    .setParameter(1, ownerItemIds)
+                    .getResultList();
+            Map<Long, List<Instant>> startsByItem = itemBookings.stream()
+                    .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                            Collectors.mapping(Booking::getStart, Collectors.toList())));
+            for (Long itemId : ownerItemIds) {
+                Instant lastStart = null;
+                List<Instant> upcomingStarts = new ArrayList<>();
+                for (Instant start : startsByItem.getOrDefault(itemId, Collections.emptyList())) {
+                    if (start.isAfter(now)) {
+                        upcomingStarts.add(start);
+                    } else if (lastStart == null || start.isAfter(lastStart)) {
+                        lastStart = start;
+                    }
+                }
+                Collections.sort(upcomingStarts);
+                blackhole.consume(lastStart);
+                blackhole.consume(upcomingStarts.isEmpty() ? null : upcomingStarts.get(0));
+            }
+        });
+    }
+
+    @Benchmark
+    public void aggregate(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (ItemBookingBounds bounds : bookingRepository.findBookingBoundsByItemIds(ownerItemIds, now)) {
+                blackhole.consume(bounds.getLastStart());
+                blackhole.consume(bounds.getNextStart());
+            }
+        });
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository, JdbcTemplate jdbcTemplate) {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@example.com"));
+        User other = userRepository.save(new User(null, "Другой владелец", "other@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@example.com"));
+
+        List<Item> savedItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Long itemOwnerId = i < ownerItems ? owner.getId() : other.getId();
+            savedItems.add(new Item(null, itemOwnerId, "Дрель " + i, "Ударная дрель " + i, true, null));
+        }
+        itemRepository.saveAll(savedItems);
+        List<Long> itemIds = savedItems.stream().map(Item::getId).toList();
+        ownerItemIds = itemIds.subList(0, ownerItems);
+
+        // Бронирования вставляются пачками через JDBC: миллион сущностей через JPA заполняется слишком долго
+        now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        int bookingsPerItem = Math.max(bookings / items, 1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < bookings; i++) {
+            // Половина бронирований каждой вещи в прошлом, половина - в будущем
+            int position = i / items;
+            Instant start = now.plus((position - bookingsPerItem / 2) * 2L, ChronoUnit.HOURS);
+            batch.add(new Object[]{itemIds.get(i % items), Timestamp.from(start),
+                    Timestamp.from(start.plus(1, ChronoUnit.HOURS)), booker.getId(), BookingStatus.APPROVED.name()});
+            if (batch.size() == INSERT_BATCH_SIZE || i == bookings - 1) {
+                jdbcTemplate.batchUpdate("insert into bookings (item_id, from_date, to_date, user_id, booking_status) "
+                        + "values (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
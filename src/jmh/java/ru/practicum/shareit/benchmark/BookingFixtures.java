@@ -0,0 +1,47 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Данные в памяти для бенчмарков маппинга и сериализации: бронирования с вещью и арендатором.
+ */
+final class BookingFixtures {
+
+    private BookingFixtures() {
+    }
+
+    static List<Booking> bookings(int size) {
+        Instant base = Instant.parse("2026-01-01T10:00:00Z");
+        User owner = new User(1L, "Владелец", "owner@example.com");
+        List<Booking> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item((long) i % 100, owner.getId(), "Дрель " + i, "Ударная дрель с набором сверл " + i,
+                    true, null);
+            User booker = new User(2L + i % 50, "Арендатор " + i, "booker" + i + "@example.com");
+            Instant start = base.plus(i, ChronoUnit.HOURS);
+            bookings.add(new Booking((long) i, item, start, start.plus(2, ChronoUnit.DAYS), booker,
+                    BookingStatus.values()[i % BookingStatus.values().length]));
+        }
+        return bookings;
+    }
+
+    static List<BookingDto> bookingDtos(int size) {
+        LocalDateTime base = LocalDateTime.parse("2026-01-01T10:00:00");
+        List<BookingDto> dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = base.plusHours(i);
+            dtos.add(new BookingDto(null, (long) i % 100, start, start.plusDays(2), null, null));
+        }
+        return dtos;
+    }
+}
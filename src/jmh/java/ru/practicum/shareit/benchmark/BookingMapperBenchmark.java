@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingMapper на списках бронирований: toResponseDto (вещь, арендатор, Instant -> LocalDateTime),
+ * toDto (Instant -> LocalDateTime) и toNewEntity (LocalDateTime -> Instant).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+
+    private List<BookingDto> bookingDtos;
+
+    @Setup
+    public void setUp() {
+        bookings = BookingFixtures.bookings(size);
+        bookingDtos = BookingFixtures.bookingDtos(size);
+    }
+
+    @Benchmark
+    public void toResponseDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toResponseDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void instantToLocalDateTime(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void localDateTimeToInstant(Blackhole blackhole) {
+        for (BookingDto bookingDto : bookingDtos) {
+            blackhole.consume(BookingMapper.toNewEntity(bookingDto, 1L));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность ItemImporter (POST /items/bulk без HTTP-слоя) на встроенной H2 в строках в секунду
+ * для разных shareit.item-import.batch-size и формата входа: JSON-массив или NDJSON.
+ * После каждой итерации владелец удаляется вместе с вещами, чтобы размер таблицы не влиял на следующую.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ItemImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"100", "1000", "5000"})
+    private int batchSize;
+
+    @Param({"json", "ndjson"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemImporter itemImporter;
+
+    private UserService userService;
+
+    private byte[] payload;
+
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:import;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "shareit.item-import.batch-size=" + batchSize,
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        itemImporter = context.getBean(ItemImporter.class);
+        userService = context.getBean(UserService.class);
+        payload = payload(context.getBean(ObjectMapper.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void addOwner() {
+        ownerId = userService.addUser(new UserDto(null, "Владелец", "owner" + System.nanoTime() + "@example.com"))
+                .getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteOwner() {
+        userService.deleteUser(ownerId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ItemImportResultDto importItems() throws IOException {
+        return itemImporter.importItems(ownerId, new ByteArrayInputStream(payload));
+    }
+
+    private byte[] payload(ObjectMapper objectMapper) throws IOException {
+        List<ItemDto> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new ItemDto(null, null, "Дрель " + i, "Ударная дрель с набором сверл " + i, true, null));
+        }
+        if ("json".equals(format)) {
+            return objectMapper.writeValueAsBytes(rows);
+        }
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (ItemDto row : rows) {
+            ndjson.write(objectMapper.writeValueAsBytes(row));
+            ndjson.write('\n');
+        }
+        return ndjson.toByteArray();
+    }
+}
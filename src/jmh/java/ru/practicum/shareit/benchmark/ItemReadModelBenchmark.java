@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.cache.ItemReadModel;
+import ru.practicum.shareit.item.dto.CommentAuthorNameDto;
+import ru.practicum.shareit.item.dto.ItemBookingTimeDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответа GET /items из закэшированных карточек - то, что раньше делали fillLastNextBooking и fillComments.
+ * Параметр commentsPerItem задает размер закэшированной первой страницы комментариев.
+ * Повторяет цикл ItemServiceImpl.getAllItemsByUserId без обращения к кэшу и БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemReadModelBenchmark {
+
+    @Param({"10", "1000"})
+    private int items;
+
+    @Param({"1", "16"})
+    private int upcomingBookings;
+
+    @Param({"0", "10"})
+    private int commentsPerItem;
+
+    private List<ItemReadModel> models;
+
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        now = Instant.parse("2026-01-01T10:00:00Z");
+        models = new ArrayList<>(items);
+        for (long i = 0; i < items; i++) {
+            List<Instant> upcoming = new ArrayList<>(upcomingBookings);
+            for (int j = 1; j <= upcomingBookings; j++) {
+                upcoming.add(now.plus(j, ChronoUnit.DAYS));
+            }
+            List<CommentAuthorNameDto> comments = new ArrayList<>(commentsPerItem);
+            for (long j = 0; j < commentsPerItem; j++) {
+                comments.add(new CommentAuthorNameDto(j, "Отличная вещь " + j, now.minus(j, ChronoUnit.DAYS),
+                        "Арендатор", i));
+            }
+            models.add(new ItemReadModel(new ItemDto(i, 1L, "Дрель " + i, "Ударная дрель " + i, true, null),
+                    now.minus(1, ChronoUnit.DAYS), List.copyOf(upcoming), List.copyOf(comments), commentsPerItem,
+                    null));
+        }
+    }
+
+    @Benchmark
+    public void ownerItemsView(Blackhole blackhole) {
+        for (ItemReadModel model : models) {
+            ItemBookingTimeDto item = ItemMapper.toItemBookingDto(model.getItem());
+            item.setLastBooking(model.lastBooking(now));
+            item.setNextBooking(model.nextBooking(now));
+            item.setCommentCount(model.getCommentCount());
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void addBookingToModel(Blackhole blackhole) {
+        Instant start = now.plus(36, ChronoUnit.HOURS);
+        for (ItemReadModel model : models) {
+            blackhole.consume(model.withBooking(start));
+        }
+    }
+}
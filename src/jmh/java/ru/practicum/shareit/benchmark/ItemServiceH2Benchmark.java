@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.ItemReadModelCache;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBookingTimeDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemServiceImpl.getAllItemsByUserId на встроенной H2 с полным контекстом Spring (без веб-слоя).
+ * cold - карточки вещей перечитываются из БД (агрегат last/next и комментарии), warm - берутся из кэша.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceH2Benchmark {
+
+    @Param({"10", "200"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    private ItemReadModelCache itemReadModelCache;
+
+    private Long ownerId;
+
+    private List<Long> itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        itemReadModelCache = context.getBean(ItemReadModelCache.class);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class), context.getBean(CommentRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+
+        @Setup(Level.Invocation)
+        public void evict(ItemServiceH2Benchmark benchmark) {
+            benchmark.itemIds.forEach(benchmark.itemReadModelCache::evict);
+        }
+    }
+
+    @Benchmark
+    public List<ItemBookingTimeDto> ownerItemsCold(ColdCache coldCache) {
+        return itemService.getAllItemsByUserId(ownerId);
+    }
+
+    @Benchmark
+    public List<ItemBookingTimeDto> ownerItemsWarm() {
+        return itemService.getAllItemsByUserId(ownerId);
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository,
+                      BookingRepository bookingRepository, CommentRepository commentRepository) {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@example.com"));
+        ownerId = owner.getId();
+
+        List<Item> savedItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            savedItems.add(new Item(null, ownerId, "Дрель " + i, "Ударная дрель " + i, true, null));
+        }
+        itemRepository.saveAll(savedItems);
+        itemIds = savedItems.stream().map(Item::getId).toList();
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : savedItems) {
+            for (int j = 0; j < bookingsPerItem; j++) {
+                // Половина бронирований в прошлом, половина - в будущем
+                Instant start = now.plus((j - bookingsPerItem / 2) * 3L, ChronoUnit.DAYS);
+                bookings.add(new Booking(null, item, start, start.plus(1, ChronoUnit.DAYS), booker,
+                        BookingStatus.APPROVED));
+            }
+            for (int j = 0; j < commentsPerItem; j++) {
+                comments.add(new Comment(null, "Отличная вещь " + j, now.minus(j, ChronoUnit.DAYS),
+                        booker.getId(), item.getId()));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+}
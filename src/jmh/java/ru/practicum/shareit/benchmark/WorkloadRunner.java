@@ -0,0 +1,349 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.seed.SeedVocabulary;
+import ru.practicum.shareit.seed.ZipfSampler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Смешанная нагрузка на запущенное приложение, заполненное SeedDataGenerator (профиль seed, пустая БД до запуска).
+ * Каждый из workload.concurrency виртуальных потоков в течение workload.duration-seconds выбирает эндпоинт по весу
+ * и шлет запрос; владельцы и вещи выбираются с тем же перекосом, что и при генерации.
+ * В конце печатает по эндпоинтам число запросов, ответы 4xx, ошибки (5xx, прочие статусы кроме 2xx/304, сбои связи),
+ * p50/p95/p99 и среднее число SQL-операторов на запрос
+ * (из метрики shareit.http.sql.statements, разница до и после прогона).
+ * <p>
+ * С workload.compare-virtual-threads=путь к jar приложения сам запускает его дважды, с SHAREIT_VIRTUAL_THREADS
+ * false и true (аргументы приложения - workload.app-args, вывод - в workload.log-dir), прогревает каждый запуск
+ * workload.warmup-seconds, нагружает только GET /bookings/owner и GET /items и печатает результаты рядом.
+ * Первый запуск с профилем seed заполняет пустую БД, второй застает ее уже заполненной.
+ *
+ * <pre>mvn -P benchmarks compile exec:java@workload -Dworkload.duration-seconds=120</pre>
+ * <pre>mvn package -DskipTests && mvn -P benchmarks compile exec:java@workload \
+ *     -Dworkload.compare-virtual-threads=target/shareit-0.0.1-SNAPSHOT.jar \
+ *     -Dworkload.app-args=--spring.profiles.active=seed</pre>
+ */
+public final class WorkloadRunner {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String SQL_METRIC = "shareit.http.sql.statements";
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final List<String> COMPARED_URIS = List.of("/bookings/owner", "/items");
+
+    private final String baseUrl = System.getProperty("workload.base-url", "http://localhost:8080");
+    private final Duration duration = Duration.ofSeconds(Long.getLong("workload.duration-seconds", 60));
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("workload.warmup-seconds", 15));
+    private final Duration startupTimeout = Duration.ofSeconds(Long.getLong("workload.startup-timeout-seconds", 600));
+    private final int concurrency = Integer.getInteger("workload.concurrency", 32);
+    private final int users = Integer.getInteger("workload.users", 100_000);
+    private final int items = Integer.getInteger("workload.items", 200_000);
+    private final ZipfSampler owners = new ZipfSampler(users,
+            Double.parseDouble(System.getProperty("workload.owner-skew", "1.1")));
+    private final ZipfSampler hotItems = new ZipfSampler(items,
+            Double.parseDouble(System.getProperty("workload.item-skew", "0.9")));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Endpoint> endpoints = List.of(
+            new Endpoint("GET /items/{itemId}", "/items/{itemId}", 30,
+                    random -> "/items/" + (hotItems.sample(random) + 1), random -> randomUser(random)),
+            new Endpoint("GET /items", "/items", 15,
+                    random -> "/items", random -> owners.sample(random) + 1L),
+            new Endpoint("GET /items/search", "/items/search", 20,
+                    random -> "/items/search?size=20&text="
+                            + URLEncoder.encode(SeedVocabulary.pick(SeedVocabulary.NOUNS, random),
+                            StandardCharsets.UTF_8), random -> randomUser(random)),
+            new Endpoint("GET /bookings", "/bookings", 20,
+                    random -> "/bookings?limit=20&state=" + STATES.get(random.nextInt(STATES.size())),
+                    random -> randomUser(random)),
+            new Endpoint("GET /bookings/owner", "/bookings/owner", 15,
+                    random -> "/bookings/owner?limit=20&state=" + STATES.get(random.nextInt(STATES.size())),
+                    random -> owners.sample(random) + 1L));
+
+    public static void main(String[] args) throws Exception {
+        new WorkloadRunner().run();
+    }
+
+    private void run() throws Exception {
+        String applicationJar = System.getProperty("workload.compare-virtual-threads");
+        if (applicationJar != null) {
+            compareVirtualThreads(Path.of(applicationJar));
+            return;
+        }
+        System.out.printf("Нагрузка на %s: %d потоков, %d с%n", baseUrl, concurrency, duration.toSeconds());
+        Map<Endpoint, Summary> summaries = measure(endpoints, duration);
+        printHeader("");
+        endpoints.forEach(endpoint -> printRow(endpoint.name(), "", summaries.get(endpoint)));
+    }
+
+    /**
+     * Один и тот же прогон на платформенных и на виртуальных потоках Tomcat; приложение перезапускается между ними.
+     */
+    private void compareVirtualThreads(Path applicationJar) throws Exception {
+        List<Endpoint> compared = endpoints.stream()
+                .filter(endpoint -> COMPARED_URIS.contains(endpoint.uri()))
+                .toList();
+        Map<Boolean, Map<Endpoint, Summary>> byMode = new LinkedHashMap<>();
+        for (boolean virtualThreads : List.of(false, true)) {
+            Process application = startApplication(applicationJar, virtualThreads);
+            try {
+                awaitStartup(application);
+                System.out.printf("SHAREIT_VIRTUAL_THREADS=%s: прогрев %d с, нагрузка %d с, %d потоков%n",
+                        virtualThreads, warmup.toSeconds(), duration.toSeconds(), concurrency);
+                measure(compared, warmup);
+                byMode.put(virtualThreads, measure(compared, duration));
+            } finally {
+                stopApplication(application);
+            }
+        }
+        printHeader("threads");
+        for (Endpoint endpoint : compared) {
+            byMode.forEach((virtualThreads, summaries) -> printRow(endpoint.name(),
+                    virtualThreads ? "virtual" : "platform", summaries.get(endpoint)));
+        }
+    }
+
+    private Process startApplication(Path applicationJar, boolean virtualThreads) throws IOException {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString(), "-jar", applicationJar.toString()));
+        String applicationArgs = System.getProperty("workload.app-args", "").trim();
+        if (!applicationArgs.isEmpty()) {
+            command.addAll(List.of(applicationArgs.split("\\s+")));
+        }
+        Path logDirectory = Path.of(System.getProperty("workload.log-dir", "target"));
+        Files.createDirectories(logDirectory);
+        Path log = logDirectory.resolve("workload-virtual-threads-" + virtualThreads + ".log");
+        System.out.printf("Запуск %s (SHAREIT_VIRTUAL_THREADS=%s), вывод в %s%n", applicationJar, virtualThreads, log);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().put("SHAREIT_VIRTUAL_THREADS", String.valueOf(virtualThreads));
+        return builder.start();
+    }
+
+    private void awaitStartup(Process application) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось при запуске с кодом "
+                        + application.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // еще не слушает порт
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Приложение не запустилось за " + startupTimeout.toSeconds() + " с");
+    }
+
+    private static void stopApplication(Process application) throws InterruptedException {
+        application.destroy();
+        if (!application.waitFor(30, TimeUnit.SECONDS)) {
+            application.destroyForcibly().waitFor();
+        }
+    }
+
+    private Map<Endpoint, Summary> measure(List<Endpoint> selected, Duration period) throws Exception {
+        Map<String, double[]> sqlBefore = readSqlStatements(selected);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + period.toNanos();
+        int totalWeight = selected.stream().mapToInt(Endpoint::weight).sum();
+        List<Map<Endpoint, Latencies>> perWorker = new ArrayList<>();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                Map<Endpoint, Latencies> latencies = new HashMap<>();
+                perWorker.add(latencies);
+                SplittableRandom random = new SplittableRandom(worker);
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick(selected, random.nextInt(totalWeight));
+                        call(endpoint, random, latencies.computeIfAbsent(endpoint, key -> new Latencies()));
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Map<String, double[]> sqlAfter = readSqlStatements(selected);
+        Map<Endpoint, Summary> summaries = new LinkedHashMap<>();
+        for (Endpoint endpoint : selected) {
+            Latencies merged = new Latencies();
+            perWorker.forEach(latencies -> merged.addAll(latencies.get(endpoint)));
+            summaries.put(endpoint, new Summary(merged.size(), merged.clientErrors, merged.errors,
+                    merged.size() / elapsedSeconds, merged.percentileMillis(0.50), merged.percentileMillis(0.95),
+                    merged.percentileMillis(0.99),
+                    sqlPerRequest(sqlBefore.get(endpoint.uri()), sqlAfter.get(endpoint.uri()))));
+        }
+        return summaries;
+    }
+
+    private static void printHeader(String mode) {
+        System.out.printf("%-22s %-9s %9s %7s %7s %9s %9s %9s %9s %10s%n", "endpoint", mode, "requests", "4xx",
+                "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "sql/req");
+    }
+
+    private static void printRow(String endpoint, String mode, Summary summary) {
+        System.out.printf("%-22s %-9s %9d %7d %7d %9.1f %9.1f %9.1f %9.1f %10s%n", endpoint, mode,
+                summary.requests(), summary.clientErrors(), summary.errors(), summary.throughput(), summary.p50(),
+                summary.p95(), summary.p99(), summary.sqlPerRequest());
+    }
+
+    private static Endpoint pick(List<Endpoint> selected, int roll) {
+        for (Endpoint endpoint : selected) {
+            roll -= endpoint.weight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return selected.getLast();
+    }
+
+    /**
+     * Успех - только 2xx и 304 (ответ по If-None-Match); 4xx считаются отдельно, остальное - ошибка.
+     */
+    private void call(Endpoint endpoint, SplittableRandom random, Latencies latencies) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path().apply(random)))
+                .header(USER_HEADER, String.valueOf(endpoint.user().apply(random)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long startedAt = System.nanoTime();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long elapsed = System.nanoTime() - startedAt;
+            if (status / 100 == 2 || status == 304) {
+                latencies.record(elapsed);
+            } else if (status / 100 == 4) {
+                latencies.recordClientError(elapsed);
+            } else {
+                latencies.recordError(elapsed);
+            }
+        } catch (IOException e) {
+            latencies.recordError(System.nanoTime() - startedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            latencies.recordError(System.nanoTime() - startedAt);
+        }
+    }
+
+    private long randomUser(SplittableRandom random) {
+        return random.nextInt(users) + 1L;
+    }
+
+    /**
+     * uri -> {число запросов, сумма операторов} из /actuator/metrics.
+     */
+    private Map<String, double[]> readSqlStatements(List<Endpoint> selected) throws IOException, InterruptedException {
+        Map<String, double[]> result = new HashMap<>();
+        for (Endpoint endpoint : selected) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + SQL_METRIC
+                    + "?tag=uri:" + URLEncoder.encode(endpoint.uri(), StandardCharsets.UTF_8))).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            double[] countAndTotal = new double[2];
+            if (response.statusCode() == 200) {
+                for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                    switch (measurement.path("statistic").asText()) {
+                        case "COUNT" -> countAndTotal[0] = measurement.path("value").asDouble();
+                        case "TOTAL" -> countAndTotal[1] = measurement.path("value").asDouble();
+                        default -> {
+                        }
+                    }
+                }
+            }
+            result.put(endpoint.uri(), countAndTotal);
+        }
+        return result;
+    }
+
+    private static String sqlPerRequest(double[] before, double[] after) {
+        double requests = after[0] - before[0];
+        return requests > 0 ? String.format("%.2f", (after[1] - before[1]) / requests) : "-";
+    }
+
+    private record Endpoint(String name, String uri, int weight, Function<SplittableRandom, String> path,
+                            Function<SplittableRandom, Long> user) {
+    }
+
+    private record Summary(long requests, long clientErrors, long errors, double throughput, double p50, double p95,
+                           double p99, String sqlPerRequest) {
+    }
+
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long errors;
+
+        void recordClientError(long elapsed) {
+            clientErrors++;
+            record(elapsed);
+        }
+
+        void recordError(long elapsed) {
+            errors++;
+            record(elapsed);
+        }
+
+        void record(long elapsed) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = elapsed;
+        }
+
+        void addAll(Latencies other) {
+            if (other == null) {
+                return;
+            }
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length, size + other.size));
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            clientErrors += other.clientErrors;
+            errors += other.errors;
+        }
+
+        int size() {
+            return size;
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.util.List;
 
@@ -20,7 +34,10 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestBody @Valid BookingDto bookingDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -35,6 +52,14 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/approve")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody @NotEmpty @Size(max = 500)
+                                                          List<@Valid BookingDecisionDto> decisions) {
+        log.info("Пакетное подтверждение {} бронирований в коллекции bookings", decisions.size());
+        return bookingService.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
         log.info("Получение бронирования из коллекции bookings по id={}", bookingId);
@@ -42,18 +67,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllBookingByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                        @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT)
+                                                                        @Positive @Max(KeysetCursor.MAX_LIMIT) Integer limit) {
         log.info("Получение бронирования из коллекции bookings по userId={}", userId);
-        return bookingService.getAllBookingByUser(userId, state);
+        return toResponse(bookingService.getAllBookingByUser(userId, state, cursor, limit));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                         @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                         @RequestParam(defaultValue = "ALL") String state,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT)
+                                                                         @Positive @Max(KeysetCursor.MAX_LIMIT) Integer limit) {
         log.info("Получение бронирования из коллекции bookings по ownerId={}", userId);
-        return bookingService.getAllBookingByOwner(userId, state);
+        return toResponse(bookingService.getAllBookingByOwner(userId, state, cursor, limit));
     }
-}
 
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                       @RequestParam(defaultValue = "NDJSON")
+                                                                       BookingExportFormat format) {
+        log.info("Выгрузка всех бронирований из коллекции bookings по ownerId={} в формате {}", userId, format);
+        StreamingResponseBody body = bookingExporter.exportByOwner(userId, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings-owner-" + userId + "." + format.getExtension() + "\"")
+                .body(body);
+    }
 
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dal;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Instant;
+
+public interface BookingApprovalView {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    Instant getStart();
+
+    BookingStatus getStatus();
+}
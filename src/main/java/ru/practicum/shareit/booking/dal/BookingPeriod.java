@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dal;
+
+import java.time.Instant;
+
+public interface BookingPeriod {
+
+    Instant getStart();
+
+    Instant getEnd();
+}
@@ -1,12 +1,21 @@
 package ru.practicum.shareit.booking.dal;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -14,54 +23,65 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("update Booking b set b.bookingStatus = ?2 where b.id = ?1")
     void approveBooking(Long bookingId, BookingStatus status);
 
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 order by b.start desc")
-    List<Booking> getAllBookingByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 and " +
-            "(b.start <= CURRENT_TIMESTAMP and b.end >= CURRENT_TIMESTAMP) " +
-            "order by b.start desc")
-    List<Booking> getCurrentBookingsByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 and b.end <= CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    List<Booking> getPastBookingsByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 and b.start >= CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    List<Booking> getFutureBookingsByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 and b.bookingStatus = 'WAITING' " +
-            "order by b.start desc")
-    List<Booking> getWaitingBookingsByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.booker u where u.id = ?1 and b.bookingStatus = 'REJECTED' " +
-            "order by b.start desc")
-    List<Booking> getRejectedBookingsByBooker(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 order by b.start desc")
-    List<Booking> getAllBookingsByOwner(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 and " +
-            "(b.start <= CURRENT_TIMESTAMP and b.end >= CURRENT_TIMESTAMP) " +
-            "order by b.start desc")
-    List<Booking> getCurrentBookingsByOwner(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 and b.end <= CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    List<Booking> getPastBookingsByOwner(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 and b.start >= CURRENT_TIMESTAMP " +
-            "order by b.start desc")
-    List<Booking> getFutureBookingsByOwner(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 and b.bookingStatus = 'WAITING' " +
-            "order by b.start desc")
-    List<Booking> getWaitingBookingsByOwner(Long userId);
-
-    @Query("select b from Booking b join fetch b.item i where i.ownerId = ?1 and b.bookingStatus = 'REJECTED' " +
-            "order by b.start desc")
-    List<Booking> getRejectedBookingsByOwner(Long userId);
-
-    List<Booking> findAllByItemIdIn(List<Long> itemId);
+    @Modifying
+    @Query("update Booking b set b.bookingStatus = ?2 where b.id in ?1 and b.bookingStatus = 'WAITING'")
+    int updateStatusOfWaiting(Collection<Long> bookingIds, BookingStatus status);
+
+    @Query("select b.id as id, i.id as itemId, i.ownerId as ownerId, b.booker.id as bookerId, b.start as start, " +
+            "b.bookingStatus as status from Booking b join b.item i where b.id in ?1")
+    List<BookingApprovalView> findApprovalViewsByIdIn(Collection<Long> bookingIds);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Лента автора для BookingTimelineIndex в порядке выдачи (start desc, id desc).
+     */
+    @Query("select b.id as id, b.start as start, b.end as end, b.bookingStatus as status from Booking b " +
+            "where b.booker.id = ?1 order by b.start desc, b.id desc")
+    List<BookingTimelineEntry> findTimelineByBooker(Long bookerId);
+
+    /**
+     * Лента владельца вещей для BookingTimelineIndex в порядке выдачи (start desc, id desc).
+     */
+    @Query("select b.id as id, b.start as start, b.end as end, b.bookingStatus as status from Booking b " +
+            "join b.item i where i.ownerId = ?1 order by b.start desc, b.id desc")
+    List<BookingTimelineEntry> findTimelineByOwner(Long ownerId);
+
+    /**
+     * Все бронирования вещей владельца для выгрузки. Читается курсором порциями по fetchSize,
+     * поэтому вызывать только внутри транзакции и закрывать поток после чтения.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker u where i.ownerId = ?1 " +
+            "order by b.start desc, b.id desc")
+    Stream<Booking> streamAllBookingsByOwner(Long userId);
+
+    @Query("select count(b) > 0 from Booking b where b.item.id = ?1 and " +
+            "b.bookingStatus in ('WAITING', 'APPROVED') and b.start < ?3 and b.end > ?2")
+    boolean existsOverlappingBooking(Long itemId, Instant start, Instant end);
+
+    @Query("select b.start as start, b.end as end from Booking b where b.item.id = ?1 and " +
+            "b.bookingStatus in ('WAITING', 'APPROVED') and b.end > ?2 order by b.start")
+    List<BookingPeriod> findActivePeriodsByItemId(Long itemId, Instant endAfter);
+
+    /**
+     * Завершенная аренда не может стать незавершенной, поэтому кэшируются только положительные ответы.
+     */
+    @Cacheable(cacheNames = "completedRentals", key = "#p0 + ':' + #p1", unless = "!#result")
+    boolean existsByBookerIdAndItemIdAndBookingStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                                   Instant end);
+
+    @Query("select b.item.id as itemId, " +
+            "max(case when b.start <= ?2 then b.start end) as lastStart, " +
+            "min(case when b.start > ?2 then b.start end) as nextStart " +
+            "from Booking b where b.item.id in ?1 group by b.item.id")
+    List<ItemBookingBounds> findBookingBoundsByItemIds(Collection<Long> itemIds, Instant now);
 
 }
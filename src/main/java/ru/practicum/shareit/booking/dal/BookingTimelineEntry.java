@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dal;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Instant;
+
+public interface BookingTimelineEntry {
+
+    Long getId();
+
+    Instant getStart();
+
+    Instant getEnd();
+
+    BookingStatus getStatus();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dal;
+
+import java.time.Instant;
+
+/**
+ * Последнее наступившее и ближайшее будущее начало бронирования вещи.
+ */
+public interface ItemBookingBounds {
+
+    Long getItemId();
+
+    Instant getLastStart();
+
+    Instant getNextStart();
+}
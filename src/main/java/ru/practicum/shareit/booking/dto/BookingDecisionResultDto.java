@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Итог решения по одному бронированию из пакета: новый статус либо причина отказа.
+ */
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+
+    private Long bookingId;
+
+    private BookingStatus status;
+
+    private String error;
+
+    public static BookingDecisionResultDto success(Long bookingId, BookingStatus status) {
+        return new BookingDecisionResultDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionResultDto failure(Long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, null, error);
+    }
+}
@@ -8,6 +8,7 @@ import ru.practicum.shareit.user.dto.UserMapper;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 
 public class BookingMapper {
 
@@ -21,8 +22,11 @@ public class BookingMapper {
                 toLocalDateTime(booking.getEnd()), booking.getBooker(), booking.getBookingStatus());
     }
 
+    /**
+     * Точность как у timestamp в БД, иначе лента бронирований в памяти разойдется с сохраненными значениями.
+     */
     private static Instant toInstant(LocalDateTime localDateTime) {
-        return localDateTime.toInstant(ZoneOffset.UTC);
+        return localDateTime.toInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
     }
 
     private static LocalDateTime toLocalDateTime(Instant instant) {
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Занятость одной вещи: объединение интервалов активных бронирований (WAITING и APPROVED).
+ * Интервалы [start, end) хранятся отсортированными и непересекающимися в двух массивах микросекунд эпохи,
+ * поэтому и starts, и ends возрастают, а пересечение и свободные окна ищутся бинарным поиском.
+ * Экземпляры неизменяемы: добавление интервала возвращает новую копию.
+ */
+public final class BookingIntervals {
+
+    public static final BookingIntervals EMPTY = new BookingIntervals(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private BookingIntervals(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Строит занятость из интервалов, отсортированных по началу; пересекающиеся и смежные сливаются.
+     */
+    public static BookingIntervals ofSorted(long[] sortedStarts, long[] ends) {
+        int count = sortedStarts.length;
+        long[] mergedStarts = new long[count];
+        long[] mergedEnds = new long[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size > 0 && sortedStarts[i] <= mergedEnds[size - 1]) {
+                mergedEnds[size - 1] = Math.max(mergedEnds[size - 1], ends[i]);
+            } else {
+                mergedStarts[size] = sortedStarts[i];
+                mergedEnds[size] = ends[i];
+                size++;
+            }
+        }
+        return new BookingIntervals(Arrays.copyOf(mergedStarts, size), Arrays.copyOf(mergedEnds, size));
+    }
+
+    public static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    public static Instant toInstant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean overlaps(long from, long to) {
+        int index = firstEndingAfter(from);
+        return index < starts.length && starts[index] < to;
+    }
+
+    /**
+     * Свободные промежутки внутри [from, to) в виде пар {start, end}.
+     */
+    public List<long[]> freeWindows(long from, long to) {
+        List<long[]> windows = new ArrayList<>();
+        long cursor = from;
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i] < to; i++) {
+            if (starts[i] > cursor) {
+                windows.add(new long[]{cursor, starts[i]});
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            windows.add(new long[]{cursor, to});
+        }
+        return windows;
+    }
+
+    public BookingIntervals with(long start, long end) {
+        int insertAt = firstEndingAfter(start);
+        int mergeUntil = insertAt;
+        long mergedStart = start;
+        long mergedEnd = end;
+        while (mergeUntil < starts.length && starts[mergeUntil] <= end) {
+            mergedStart = Math.min(mergedStart, starts[mergeUntil]);
+            mergedEnd = Math.max(mergedEnd, ends[mergeUntil]);
+            mergeUntil++;
+        }
+        if (insertAt > 0 && ends[insertAt - 1] == start) {
+            insertAt--;
+            mergedStart = starts[insertAt];
+        }
+        int size = starts.length - (mergeUntil - insertAt) + 1;
+        long[] newStarts = new long[size];
+        long[] newEnds = new long[size];
+        System.arraycopy(starts, 0, newStarts, 0, insertAt);
+        System.arraycopy(ends, 0, newEnds, 0, insertAt);
+        newStarts[insertAt] = mergedStart;
+        newEnds[insertAt] = mergedEnd;
+        System.arraycopy(starts, mergeUntil, newStarts, insertAt + 1, starts.length - mergeUntil);
+        System.arraycopy(ends, mergeUntil, newEnds, insertAt + 1, ends.length - mergeUntil);
+        return new BookingIntervals(newStarts, newEnds);
+    }
+
+    private int firstEndingAfter(long time) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] > time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.interval;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dal.BookingPeriod;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Занятость вещей в памяти процесса. Заполняется при первом обращении к вещи
+ * активными бронированиями, которые еще не закончились, и далее поддерживается createBooking/approveBooking.
+ * Запись может отставать от БД (чужие транзакции, другие экземпляры приложения), поэтому она перечитывается
+ * не реже expire-after-write и годится только как подсказка: конфликт бронирований решает БД.
+ */
+@Component
+public class ItemAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervals> cache;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                 @Value("${shareit.availability-index.maximum-size:10000}") long maximumSize,
+                                 @Value("${shareit.availability-index.expire-after-write:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemAvailability", "cacheManager", "shareit");
+    }
+
+    public BookingIntervals get(Long itemId) {
+        return cache.get(itemId, this::load);
+    }
+
+    public boolean overlaps(Long itemId, Instant start, Instant end) {
+        return get(itemId).overlaps(BookingIntervals.toMicros(start), BookingIntervals.toMicros(end));
+    }
+
+    public void onBookingCreated(Long itemId, Instant start, Instant end) {
+        TransactionUtils.afterCommit(() -> cache.asMap().computeIfPresent(itemId, (id, intervals) ->
+                intervals.with(BookingIntervals.toMicros(start), BookingIntervals.toMicros(end))));
+    }
+
+    /**
+     * Отклоненное бронирование освобождает время, а из объединения интервалов его не вычесть - запись перестраивается.
+     */
+    public void onBookingRejected(Long itemId) {
+        TransactionUtils.afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    /**
+     * Запись разошлась с БД: следующее обращение перечитает ее.
+     */
+    public void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    /**
+     * Удаление пользователя каскадом удаляет его вещи и бронирования, их id здесь неизвестны.
+     */
+    public void onUserDeleted() {
+        TransactionUtils.afterCommit(cache::invalidateAll);
+    }
+
+    private BookingIntervals load(Long itemId) {
+        List<BookingPeriod> periods = bookingRepository.findActivePeriodsByItemId(itemId, Instant.now());
+        if (periods.isEmpty()) {
+            return BookingIntervals.EMPTY;
+        }
+        long[] starts = new long[periods.size()];
+        long[] ends = new long[periods.size()];
+        for (int i = 0; i < periods.size(); i++) {
+            starts[i] = BookingIntervals.toMicros(periods.get(i).getStart());
+            ends[i] = BookingIntervals.toMicros(periods.get(i).getEnd());
+        }
+        return BookingIntervals.ofSorted(starts, ends);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.exception.NotMetConditions;
+
+/**
+ * Фильтр выдачи бронирований (параметр state в /bookings и /bookings/owner).
+ */
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return value;
+            }
+        }
+        throw new NotMetConditions("Неправильный параметр запроса (state)");
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всех бронирований владельца в NDJSON или CSV.
+ * Строки читаются курсором и пишутся в ответ по одной, контекст персистентности периодически очищается,
+ * так что расход памяти не зависит от числа бронирований.
+ * Время выгрузки пишется в таймер shareit.booking.export, число выгруженных строк - в shareit.booking.export.rows
+ * (тег format); замеряется запись тела ответа, а не построение StreamingResponseBody.
+ */
+@Slf4j
+@Component
+public class BookingExporter {
+
+    private static final int CLEAR_EVERY = 1000;
+    private static final String CSV_HEADER = "id,start,end,item_id,item_name,booker_id,booker_email,status";
+
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BookingExporter(BookingRepository bookingRepository, UserService userService, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Проверяет пользователя сразу, чтобы ошибка пришла обычным ответом, а сами данные читает
+     * уже при записи тела ответа в отдельной транзакции.
+     */
+    public StreamingResponseBody exportByOwner(Long userId, BookingExportFormat format) {
+        userService.existUser(userId);
+        return out -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String exception = "none";
+            long written = 0;
+            try {
+                written = transactionTemplate.execute(status -> {
+                    try (Stream<Booking> bookings = bookingRepository.streamAllBookingsByOwner(userId)) {
+                        return switch (format) {
+                            case NDJSON -> writeNdjson(bookings.iterator(), out);
+                            case CSV -> writeCsv(bookings.iterator(), out);
+                        };
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder(MetricsConfig.BOOKING_EXPORT_TIMER)
+                        .tag("format", format.name())
+                        .tag("exception", exception)
+                        .register(meterRegistry));
+                Counter.builder(MetricsConfig.BOOKING_EXPORT_ROWS)
+                        .tag("format", format.name())
+                        .register(meterRegistry)
+                        .increment(written);
+            }
+            log.info("Выгружено {} бронирований владельца id={} в формате {}", written, userId, format);
+        };
+    }
+
+    private long writeNdjson(Iterator<Booking> bookings, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writerFor(BookingResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (bookings.hasNext()) {
+                writer.write(BookingMapper.toResponseDto(bookings.next()));
+                count = detachEvery(count + 1);
+            }
+        }
+        out.write('\n');
+        return count;
+    }
+
+    private long writeCsv(Iterator<Booking> bookings, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (bookings.hasNext()) {
+            BookingResponseDto booking = BookingMapper.toResponseDto(bookings.next());
+            writer.write(String.join(",",
+                    String.valueOf(booking.getId()),
+                    String.valueOf(booking.getStart()),
+                    String.valueOf(booking.getEnd()),
+                    String.valueOf(booking.getItem().getId()),
+                    csvEscape(booking.getItem().getName()),
+                    String.valueOf(booking.getBooker().getId()),
+                    csvEscape(booking.getBooker().getEmail()),
+                    String.valueOf(booking.getStatus())));
+            writer.write('\n');
+            count = detachEvery(count + 1);
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long detachEvery(long count) {
+        if (count % CLEAR_EVERY == 0) {
+            entityManager.clear();
+        }
+        return count;
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
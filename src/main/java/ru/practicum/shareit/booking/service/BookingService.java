@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.List;
@@ -11,10 +14,12 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approve);
 
+    List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getAllBookingByUser(Long userId, String state);
+    BookingPageDto getAllBookingByUser(Long userId, String state, String cursor, int limit);
 
-    List<BookingResponseDto> getAllBookingByOwner(Long userId, String state);
+    BookingPageDto getAllBookingByOwner(Long userId, String state, String cursor, int limit);
 
 }
@@ -1,36 +1,60 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dal.BookingApprovalView;
 import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.interval.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotMetConditions;
+import ru.practicum.shareit.item.cache.ItemETags;
+import ru.practicum.shareit.item.cache.ItemReadModelCache;
+import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemBookingTimeDto;
-import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
 
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final ItemReadModelCache itemReadModelCache;
+    private final ItemETags itemETags;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
@@ -40,9 +64,14 @@ public class BookingServiceImpl implements BookingService {
         itemService.isAvailable(itemBookingTimeDto);
         correctBookingTime(bookingDto);
         Booking booking = BookingMapper.toNewEntity(bookingDto, userId);
+        booking.setItem(lockNotOverlapped(bookingDto.getItemId(), booking));
         booking.setBooker(UserMapper.toEntity(user));
-        booking.setItem(ItemMapper.toEntityFromFillItem(itemBookingTimeDto));
         bookingRepository.save(booking);
+        itemReadModelCache.onBookingCreated(bookingDto.getItemId(), booking.getStart());
+        itemETags.onOwnerItemsChanged(booking.getItem().getOwnerId());
+        itemAvailabilityIndex.onBookingCreated(bookingDto.getItemId(), booking.getStart(), booking.getEnd());
+        bookingTimelineIndex.onBookingCreated(userId, booking.getItem().getOwnerId(), booking.getId(),
+                booking.getStart(), booking.getEnd());
         return BookingMapper.toResponseDto(booking);
     }
 
@@ -62,10 +91,67 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setBookingStatus(BookingStatus.REJECTED);
             bookingRepository.approveBooking(bookingId, BookingStatus.REJECTED);
+            itemAvailabilityIndex.onBookingRejected(booking.getItem().getId());
         }
+        bookingTimelineIndex.onStatusChanged(booking.getBooker().getId(), userId, bookingId, booking.getStart(),
+                booking.getBookingStatus());
         return BookingMapper.toResponseDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        userService.existUser(userId);
+        Map<Long, BookingApprovalView> views = bookingRepository.findApprovalViewsByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .toList()).stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, view -> view));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        Set<Long> decided = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingApprovalView view = views.get(bookingId);
+            if (!decided.add(bookingId)) {
+                results.add(BookingDecisionResultDto.failure(bookingId, "Повторное решение по бронированию в запросе"));
+            } else if (view == null) {
+                results.add(BookingDecisionResultDto.failure(bookingId,
+                        "Бронирования с id=" + bookingId + " не существует"));
+            } else if (!Objects.equals(view.getOwnerId(), userId)) {
+                results.add(BookingDecisionResultDto.failure(bookingId,
+                        "Только владелец вещи может подтвердить бронирование"));
+            } else if (view.getStatus() != BookingStatus.WAITING) {
+                results.add(BookingDecisionResultDto.failure(bookingId, "Статус бронирования не в статусе ожидания"));
+            } else if (decision.getApproved()) {
+                approvedIds.add(bookingId);
+                results.add(BookingDecisionResultDto.success(bookingId, APPROVED));
+            } else {
+                rejectedIds.add(bookingId);
+                results.add(BookingDecisionResultDto.success(bookingId, BookingStatus.REJECTED));
+            }
+        }
+
+        int updated = updateStatusOfWaiting(approvedIds, APPROVED) + updateStatusOfWaiting(rejectedIds,
+                BookingStatus.REJECTED);
+        if (updated < approvedIds.size() + rejectedIds.size()) {
+            results = markConcurrentlyChanged(results);
+        }
+        rejectedIds.stream()
+                .map(bookingId -> views.get(bookingId).getItemId())
+                .distinct()
+                .forEach(itemAvailabilityIndex::onBookingRejected);
+        results.stream()
+                .filter(result -> result.getStatus() != null)
+                .forEach(result -> {
+                    BookingApprovalView view = views.get(result.getBookingId());
+                    bookingTimelineIndex.onStatusChanged(view.getBookerId(), userId, view.getId(), view.getStart(),
+                            result.getStatus());
+                });
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
@@ -80,56 +166,103 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getAllBookingByUser(Long userId, String state) {
+    public BookingPageDto getAllBookingByUser(Long userId, String state, String cursor, int limit) {
         userService.existUser(userId);
-        return switch (state) {
-            case "ALL" -> bookingRepository.getAllBookingByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "CURRENT" -> bookingRepository.getCurrentBookingsByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "PAST" -> bookingRepository.getPastBookingsByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "FUTURE" -> bookingRepository.getFutureBookingsByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "WAITING" -> bookingRepository.getWaitingBookingsByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "REJECTED" -> bookingRepository.getRejectedBookingsByBooker(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            default -> throw new NotMetConditions("Неправильный параметр запроса (state)");
-        };
+        BookingState bookingState = BookingState.from(state);
+        KeysetCursor from = KeysetCursor.decode(cursor);
+        return listTimer(bookingState, "booker").record(() -> toPage(findPage(
+                () -> bookingTimelineIndex.findBookerPage(userId, bookingState, from, limit + 1),
+                () -> bookingTimelineIndex.evictBooker(userId)), limit));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getAllBookingByOwner(Long userId, String state) {
+    public BookingPageDto getAllBookingByOwner(Long userId, String state, String cursor, int limit) {
         userService.existUser(userId);
-        return switch (state) {
-            case "ALL" -> bookingRepository.getAllBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "CURRENT" -> bookingRepository.getCurrentBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "PAST" -> bookingRepository.getPastBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "FUTURE" -> bookingRepository.getFutureBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "WAITING" -> bookingRepository.getWaitingBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            case "REJECTED" -> bookingRepository.getRejectedBookingsByOwner(userId).stream()
-                    .map(BookingMapper::toResponseDto)
-                    .toList();
-            default -> throw new NotMetConditions("Неправильный параметр запроса (state)");
-        };
+        BookingState bookingState = BookingState.from(state);
+        KeysetCursor from = KeysetCursor.decode(cursor);
+        return listTimer(bookingState, "owner").record(() -> toPage(findPage(
+                () -> bookingTimelineIndex.findOwnerPage(userId, bookingState, from, limit + 1),
+                () -> bookingTimelineIndex.evictOwner(userId)), limit));
+    }
+
+    private Timer listTimer(BookingState state, String role) {
+        return Timer.builder(MetricsConfig.BOOKING_LIST_TIMER)
+                .tag("bookingState", state.name())
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Страница выбрана по ленте в памяти, из БД по первичному ключу читаются только ее бронирования.
+     * Если части id в БД уже нет (удалены каскадом), лента перечитывается: иначе страница вышла бы короче
+     * и без курсора продолжения, хотя дальше в ленте есть бронирования.
+     */
+    private List<Booking> findPage(Supplier<long[]> page, Runnable evictTimeline) {
+        long[] bookingIds = page.get();
+        List<Booking> bookings = findAllInOrder(bookingIds);
+        if (bookings.size() < bookingIds.length) {
+            evictTimeline.run();
+            bookings = findAllInOrder(page.get());
+        }
+        return bookings;
+    }
+
+    /**
+     * Id, которых нет в БД, пропускаются.
+     */
+    private List<Booking> findAllInOrder(long[] bookingIds) {
+        if (bookingIds.length == 0) {
+            return List.of();
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(Arrays.stream(bookingIds)
+                        .boxed()
+                        .toList()).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        return Arrays.stream(bookingIds)
+                .mapToObj(bookings::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Страница запрашивается на одну запись длиннее, чтобы без count-запроса понять, есть ли продолжение.
+     */
+    private BookingPageDto toPage(List<Booking> bookings, int limit) {
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            Booking last = bookings.getLast();
+            nextCursor = new KeysetCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPageDto(bookings.stream()
+                .map(BookingMapper::toResponseDto)
+                .toList(), nextCursor);
+    }
+
+    private int updateStatusOfWaiting(List<Long> bookingIds, BookingStatus status) {
+        return bookingIds.isEmpty() ? 0 : bookingRepository.updateStatusOfWaiting(bookingIds, status);
+    }
+
+    /**
+     * Часть бронирований успела сменить статус между проверкой и обновлением:
+     * перечитывает статусы и помечает как отказ те, что не получили нужный статус.
+     */
+    private List<BookingDecisionResultDto> markConcurrentlyChanged(List<BookingDecisionResultDto> results) {
+        Map<Long, BookingStatus> actualStatuses = bookingRepository.findApprovalViewsByIdIn(results.stream()
+                        .filter(result -> result.getStatus() != null)
+                        .map(BookingDecisionResultDto::getBookingId)
+                        .toList()).stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, BookingApprovalView::getStatus));
+        return results.stream()
+                .map(result -> {
+                    if (result.getStatus() == null || result.getStatus() == actualStatuses.get(result.getBookingId())) {
+                        return result;
+                    }
+                    return BookingDecisionResultDto.failure(result.getBookingId(),
+                            "Статус бронирования изменился во время обработки");
+                })
+                .toList();
     }
 
     private void correctBookingTime(BookingDto bookingDto) {
@@ -138,8 +271,27 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * Блокировка строки вещи сериализует конкурентные бронирования одной вещи,
+     * поэтому проверка пересечения и вставка выполняются атомарно; другие вещи не ждут.
+     * Пересечение решает только БД: индекс занятости может отставать, и если он видит конфликт,
+     * которого в БД нет, его запись вещи сбрасывается.
+     */
+    private Item lockNotOverlapped(Long itemId, Booking booking) {
+        boolean overlapsInIndex = itemAvailabilityIndex.overlaps(itemId, booking.getStart(), booking.getEnd());
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь c id=" + itemId + " не существует"));
+        if (bookingRepository.existsOverlappingBooking(itemId, booking.getStart(), booking.getEnd())) {
+            throw new BookingConflictException("Вещь с id=" + itemId + " уже забронирована на это время");
+        }
+        if (overlapsInIndex) {
+            itemAvailabilityIndex.invalidate(itemId);
+        }
+        return item;
+    }
+
     private Booking getBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId)
+        return bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирования с id=" + bookingId + " не существует"));
     }
 }
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Arrays;
+
+/**
+ * Все бронирования одного пользователя (как автора или как владельца вещей) в порядке выдачи: (start desc, id desc).
+ * Начала, окончания (микросекунды эпохи), id и статусы хранятся в параллельных массивах, поэтому позиция курсора
+ * и границы CURRENT/PAST/FUTURE ищутся бинарным поиском, а страница вырезается одним проходом.
+ * Экземпляры неизменяемы: добавление бронирования и смена статуса возвращают новую копию.
+ */
+public final class BookingTimeline {
+
+    public static final BookingTimeline EMPTY = new BookingTimeline(new long[0], new long[0], new long[0], new byte[0]);
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] ids;
+    private final byte[] statuses;
+    /**
+     * Самое длинное бронирование: раньше now - maxDuration текущих бронирований уже нет.
+     */
+    private final long maxDuration;
+
+    private BookingTimeline(long[] starts, long[] ends, long[] ids, byte[] statuses) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.statuses = statuses;
+        long longest = 0;
+        for (int i = 0; i < starts.length; i++) {
+            longest = Math.max(longest, ends[i] - starts[i]);
+        }
+        this.maxDuration = longest;
+    }
+
+    /**
+     * Массивы должны быть упорядочены по (start desc, id desc); копии не делаются.
+     */
+    public static BookingTimeline ofSorted(long[] starts, long[] ends, long[] ids, BookingStatus[] statuses) {
+        byte[] ordinals = new byte[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            ordinals[i] = (byte) statuses[i].ordinal();
+        }
+        return new BookingTimeline(starts, ends, ids, ordinals);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Id не более count бронирований в состоянии state на момент now, идущих после курсора (cursorStart, cursorId).
+     */
+    public long[] page(BookingState state, long now, long cursorStart, long cursorId, int count) {
+        int from = positionAfter(cursorStart, cursorId);
+        int to = ids.length;
+        switch (state) {
+            case FUTURE -> to = positionAfter(now, Long.MIN_VALUE);
+            case CURRENT -> {
+                from = Math.max(from, positionAfter(now, Long.MAX_VALUE));
+                to = positionAfter(now - maxDuration, Long.MIN_VALUE);
+            }
+            case PAST -> from = Math.max(from, positionAfter(now, Long.MAX_VALUE));
+            default -> {
+            }
+        }
+        long[] page = new long[Math.min(count, Math.max(to - from, 0))];
+        int size = 0;
+        for (int i = from; i < to && size < page.length; i++) {
+            if (matches(state, i, now)) {
+                page[size++] = ids[i];
+            }
+        }
+        return size == page.length ? page : Arrays.copyOf(page, size);
+    }
+
+    /**
+     * Бронирование, которое уже есть в ленте (она загружена из БД после его фиксации), повторно не добавляется.
+     */
+    public BookingTimeline with(long id, long start, long end, BookingStatus status) {
+        int insertAt = positionAfter(start, id);
+        if (insertAt > 0 && ids[insertAt - 1] == id && starts[insertAt - 1] == start) {
+            return this;
+        }
+        int size = ids.length + 1;
+        long[] newStarts = new long[size];
+        long[] newEnds = new long[size];
+        long[] newIds = new long[size];
+        byte[] newStatuses = new byte[size];
+        insert(starts, newStarts, insertAt, start);
+        insert(ends, newEnds, insertAt, end);
+        insert(ids, newIds, insertAt, id);
+        System.arraycopy(statuses, 0, newStatuses, 0, insertAt);
+        newStatuses[insertAt] = (byte) status.ordinal();
+        System.arraycopy(statuses, insertAt, newStatuses, insertAt + 1, statuses.length - insertAt);
+        return new BookingTimeline(newStarts, newEnds, newIds, newStatuses);
+    }
+
+    /**
+     * Бронирование находится по (start, id); если его нет в ленте, возвращается она сама.
+     */
+    public BookingTimeline withStatus(long id, long start, BookingStatus status) {
+        int index = positionAfter(start, id + 1);
+        if (index == ids.length || ids[index] != id || starts[index] != start) {
+            return this;
+        }
+        byte[] newStatuses = statuses.clone();
+        newStatuses[index] = (byte) status.ordinal();
+        return new BookingTimeline(starts, ends, ids, newStatuses);
+    }
+
+    private boolean matches(BookingState state, int index, long now) {
+        return switch (state) {
+            case ALL, FUTURE -> true;
+            case CURRENT -> ends[index] >= now;
+            case PAST -> ends[index] <= now;
+            case WAITING -> STATUSES[statuses[index]] == BookingStatus.WAITING;
+            case REJECTED -> STATUSES[statuses[index]] == BookingStatus.REJECTED;
+        };
+    }
+
+    /**
+     * Первая позиция, где (start, id) строго меньше заданной пары, то есть запись идет после нее в выдаче.
+     */
+    private int positionAfter(long start, long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < start || (starts[mid] == start && ids[mid] < id)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void insert(long[] source, long[] target, int index, long value) {
+        System.arraycopy(source, 0, target, 0, index);
+        target[index] = value;
+        System.arraycopy(source, index, target, index + 1, source.length - index);
+    }
+}
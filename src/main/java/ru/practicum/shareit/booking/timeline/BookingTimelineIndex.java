@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dal.BookingTimelineEntry;
+import ru.practicum.shareit.booking.interval.BookingIntervals;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Ленты бронирований по авторам и по владельцам вещей для выдачи /bookings и /bookings/owner.
+ * Лента читается из БД одним запросом при первом обращении к пользователю, дальше поддерживается
+ * createBooking/approveBooking после фиксации транзакции, а состояние считается по текущему времени в памяти.
+ * Удаление пользователя каскадом удаляет бронирования из чужих лент, поэтому после него сбрасываются все ленты;
+ * если в ленте все же встретился id, которого нет в БД, вызывающий сбрасывает ее через evictBooker/evictOwner.
+ */
+@Component
+public class BookingTimelineIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingTimeline> bookerTimelines;
+    private final Cache<Long, BookingTimeline> ownerTimelines;
+
+    public BookingTimelineIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.booking-timeline.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.booking-timeline.expire-after-write:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.bookerTimelines = build(maximumSize, ttl);
+        this.ownerTimelines = build(maximumSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, bookerTimelines, "bookerTimelines", "cacheManager", "shareit");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerTimelines, "ownerTimelines", "cacheManager", "shareit");
+    }
+
+    public long[] findBookerPage(Long bookerId, BookingState state, KeysetCursor cursor, int count) {
+        return page(bookerTimelines.get(bookerId, this::loadByBooker), state, cursor, count);
+    }
+
+    public long[] findOwnerPage(Long ownerId, BookingState state, KeysetCursor cursor, int count) {
+        return page(ownerTimelines.get(ownerId, this::loadByOwner), state, cursor, count);
+    }
+
+    public void onBookingCreated(Long bookerId, Long ownerId, Long bookingId, Instant start, Instant end) {
+        long startMicros = BookingIntervals.toMicros(start);
+        long endMicros = BookingIntervals.toMicros(end);
+        TransactionUtils.afterCommit(() -> update(bookerId, ownerId, timeline ->
+                timeline.with(bookingId, startMicros, endMicros, BookingStatus.WAITING)));
+    }
+
+    public void onStatusChanged(Long bookerId, Long ownerId, Long bookingId, Instant start, BookingStatus status) {
+        long startMicros = BookingIntervals.toMicros(start);
+        TransactionUtils.afterCommit(() -> update(bookerId, ownerId, timeline ->
+                timeline.withStatus(bookingId, startMicros, status)));
+    }
+
+    public void evictBooker(Long bookerId) {
+        bookerTimelines.invalidate(bookerId);
+    }
+
+    public void evictOwner(Long ownerId) {
+        ownerTimelines.invalidate(ownerId);
+    }
+
+    /**
+     * Id бронирований, удаленных каскадом вместе с пользователем, здесь неизвестны.
+     */
+    public void onUserDeleted() {
+        TransactionUtils.afterCommit(() -> {
+            bookerTimelines.invalidateAll();
+            ownerTimelines.invalidateAll();
+        });
+    }
+
+    private void update(Long bookerId, Long ownerId, UnaryOperator<BookingTimeline> change) {
+        bookerTimelines.asMap().computeIfPresent(bookerId, (id, timeline) -> change.apply(timeline));
+        ownerTimelines.asMap().computeIfPresent(ownerId, (id, timeline) -> change.apply(timeline));
+    }
+
+    private long[] page(BookingTimeline timeline, BookingState state, KeysetCursor cursor, int count) {
+        return timeline.page(state, BookingIntervals.toMicros(Instant.now()),
+                BookingIntervals.toMicros(cursor.getPosition()), cursor.getId(), count);
+    }
+
+    private BookingTimeline loadByBooker(Long bookerId) {
+        return toTimeline(bookingRepository.findTimelineByBooker(bookerId));
+    }
+
+    private BookingTimeline loadByOwner(Long ownerId) {
+        return toTimeline(bookingRepository.findTimelineByOwner(ownerId));
+    }
+
+    private static BookingTimeline toTimeline(List<BookingTimelineEntry> entries) {
+        if (entries.isEmpty()) {
+            return BookingTimeline.EMPTY;
+        }
+        int size = entries.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        long[] ids = new long[size];
+        BookingStatus[] statuses = new BookingStatus[size];
+        for (int i = 0; i < size; i++) {
+            BookingTimelineEntry entry = entries.get(i);
+            starts[i] = BookingIntervals.toMicros(entry.getStart());
+            ends[i] = BookingIntervals.toMicros(entry.getEnd());
+            ids[i] = entry.getId();
+            statuses[i] = entry.getStatus();
+        }
+        return BookingTimeline.ofSorted(starts, ends, ids, statuses);
+    }
+
+    private static Cache<Long, BookingTimeline> build(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Кэши Spring (users, userExistence, completedRentals) на Caffeine по настройкам spring.cache.*.
+ * Менеджер обернут в TransactionAwareCacheManagerProxy: put и evict внутри транзакции (@CachePut, @CacheEvict
+ * и ручные вызовы) применяются только после ее фиксации, так что откат не оставляет в кэше несохраненных данных.
+ * У самого CaffeineCacheManager нет setTransactionAware, поэтому автоконфигурация Spring Boot заменена.
+ * Метрики кэшей по-прежнему регистрирует Spring Boot: декоратор он разворачивает до CaffeineCache.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            caffeineCacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
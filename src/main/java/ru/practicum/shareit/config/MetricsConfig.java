@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сервисов и репозиториев.
+ * Публичные методы сервисов, помеченных @Timed, пишутся в таймер shareit.service (теги class, method, exception).
+ * Выдача списков бронирований дополнительно пишется в shareit.booking.list с тегами bookingState и role
+ * (booker/owner): состояние выбирается по ленте в памяти, а не отдельным методом репозитория.
+ * Выгрузка бронирований пишется в shareit.booking.export и shareit.booking.export.rows (см. BookingExporter).
+ * Каждый вызов репозитория Spring Data пишется в spring.data.repository.invocations со стандартными тегами.
+ * Перцентили и гистограммы таймеров настраиваются в application.properties.
+ * Число SQL-операторов на HTTP-запрос считает SqlStatementCounter (см. SqlStatementMetricsFilter).
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "shareit.service";
+    public static final String BOOKING_LIST_TIMER = "shareit.booking.list";
+    public static final String BOOKING_EXPORT_TIMER = "shareit.booking.export";
+    public static final String BOOKING_EXPORT_ROWS = "shareit.booking.export.rows";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Профиль replicas: основная БД из spring.datasource.* и реплики из shareit.datasource.replica-urls
+ * с теми же учетными данными и настройками пула spring.datasource.hikari.*.
+ * Flyway и пишущие транзакции работают с основной БД, read-only транзакции - с репликами.
+ * Кэши в памяти, заполняемые при чтении (ItemReadModelCache, BookingTimelineIndex, ItemAvailabilityIndex,
+ * кэши Spring и второго уровня Hibernate), могут загрузиться с отстающей реплики. Все они истекают по времени
+ * записи, а не обращения, поэтому устаревшая запись живет не дольше своего expire-after-write.
+ * Индексы без срока жизни, которые строятся при старте (ItemKeywordIndex, InMemoryItemSearchIndex), читают
+ * основную БД через ReadReplicaRoutingDataSource.readFromPrimary.
+ */
+@Configuration
+@Profile("replicas")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+            @Value("${shareit.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${shareit.datasource.replica-connection-timeout:1s}") Duration replicaConnectionTimeout,
+            @Value("${shareit.datasource.replica-retry-after:30s}") Duration retryAfter) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry, properties.determineUrl(), "primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, meterRegistry, replicaUrls.get(i),
+                    "replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            // Недоступная при старте реплика не должна мешать запуску, она будет пропускаться до восстановления
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReadReplicaRoutingDataSource(primary, replicas, retryAfter, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         MeterRegistry meterRegistry, String url, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("shareit-" + name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выдает соединения read-only транзакций из реплик по кругу, а все остальные - из основной БД.
+ * Реплика, к которой не удалось подключиться, пропускается retryAfter; если доступных реплик нет,
+ * чтение идет в основную БД. Поток, закрепленный за основной БД (ReadYourWritesFilter), в реплики не ходит.
+ * Признак read-only известен только после начала транзакции, поэтому использовать за LazyConnectionDataSourceProxy.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                        Duration retryAfter, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(Replica::new)
+                .toList();
+        this.retryAfterNanos = retryAfter.toNanos();
+        for (Replica replica : this.replicas) {
+            Gauge.builder("shareit.datasource.replica.available", replica,
+                            r -> r.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("pool", replica.dataSource.getPoolName())
+                    .register(meterRegistry);
+        }
+    }
+
+    static void pinToPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+
+    /**
+     * Чтение из основной БД для данных, которые держатся в памяти без срока жизни.
+     * Вызывать вне транзакции: соединение уже начатой транзакции могло быть взято из реплики.
+     * Без профиля replicas просто выполняет чтение.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        boolean pinned = PRIMARY_PINNED.get() != null;
+        pinToPrimary();
+        try {
+            return read.get();
+        } finally {
+            if (!pinned) {
+                unpin();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARY_PINNED.get() != null) {
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            long now = System.nanoTime();
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.downUntil = now + retryAfterNanos;
+                log.warn("Реплика {} недоступна, чтение переключено на другие: {}", replica.dataSource.getPoolName(),
+                        e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile long downUntil = System.nanoTime();
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            return now - downUntil >= 0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+/**
+ * Публикует в Micrometer статистику регионов второго уровня кэша Hibernate:
+ * cache.gets (result=hit/miss), cache.puts, cache.removals и cache.evictions с тегом cache=имя региона.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindRegions() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory)) {
+            return;
+        }
+        CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+        for (String region : cacheManager.getCacheNames()) {
+            // Тег cacheManager - как у кэшей Spring: Prometheus требует одинаковый набор тегов у метрик с одним именем
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region), "cacheManager", "hibernate");
+        }
+        log.info("Метрики второго уровня кэша Hibernate подключены для регионов {}", cacheManager.getCacheNames());
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-операторы, подготовленные Hibernate в текущем потоке; SqlStatementMetricsFilter снимает счетчик
+ * по завершении HTTP-запроса.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Возвращает число операторов с прошлого вызова и обнуляет счетчик.
+     */
+    public static long reset() {
+        long[] count = COUNT.get();
+        long value = count[0];
+        count[0] = 0;
+        return value;
+    }
+}
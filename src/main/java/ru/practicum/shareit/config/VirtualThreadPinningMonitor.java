@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * В режиме виртуальных потоков (spring.threads.virtual.enabled=true) слушает JFR-событие jdk.VirtualThreadPinned:
+ * блокирующий вызов внутри synchronized или native-кода прикрепляет виртуальный поток к потоку-носителю,
+ * и под нагрузкой такие места становятся узким горлом. Каждое событие дольше порога пишется в лог со стеком
+ * и учитывается в счетчике shareit.virtual.threads.pinned.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${shareit.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("shareit.virtual.threads.pinned")
+                .description("Виртуальные потоки, прикрепленные к потоку-носителю дольше порога")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Мониторинг прикрепления виртуальных потоков включен, порог {} мс", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Виртуальный поток {} прикреплен к носителю на {} мс:\n{}", event.getThread().getJavaName(),
+                event.getDuration().toMillis(), event.getStackTrace());
+    }
+}
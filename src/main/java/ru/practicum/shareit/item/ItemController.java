@@ -1,13 +1,28 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.cache.ItemETags;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * TODO Sprint add-controllers.
@@ -18,7 +33,11 @@ import java.util.List;
 @Slf4j
 public class ItemController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
+    private final ItemETags itemETags;
 
     @PostMapping
     public ItemDto addItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -26,6 +45,13 @@ public class ItemController {
         return itemService.addItem(itemDto, userId);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto addItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        HttpServletRequest request) throws IOException {
+        log.info("Пакетная загрузка вещей в коллекцию items пользователем id={}", userId);
+        return itemImporter.importItems(userId, request.getInputStream());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody UpdatingItemDto itemDto, @PathVariable Long itemId,
                               @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -34,21 +60,48 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemBookingTimeDto getItemById(@PathVariable Long itemId) {
+    public ItemBookingTimeDto getItemById(@PathVariable Long itemId, WebRequest request) {
         log.info("Получение вещи из коллекции items по id={}", itemId);
+        if (request.checkNotModified(itemETags.itemTag(itemId))) {
+            return null;
+        }
         return itemService.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindowDto> getAvailability(@PathVariable Long itemId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                       LocalDateTime from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                       LocalDateTime to) {
+        log.info("Получение свободных окон вещи с id={} в период {} - {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
-    public List<ItemBookingTimeDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemBookingTimeDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        WebRequest request) {
         log.info("Получение вещей из коллекции items по userId={}", userId);
-        return itemService.getAllItemsByUserId(userId);
+        String tag = itemETags.ownerTag(userId);
+        if (request.checkNotModified(tag)) {
+            return null;
+        }
+        List<ItemBookingTimeDto> items = itemService.getAllItemsByUserId(userId);
+        itemETags.setOwnerTagValidUntil(userId, tag, items.stream()
+                .map(ItemBookingTimeDto::getNextBooking)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null));
+        return items;
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItemsByText(@RequestParam String text) {
+    public List<ItemDto> searchItemsByText(@RequestParam String text,
+                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                           @RequestParam(defaultValue = "20")
+                                           @Positive @Max(KeysetCursor.MAX_LIMIT) Integer size) {
         log.info("Поиск вещей из коллекции items по описанию: {}", text);
-        return itemService.searchItemsByText(text);
+        return itemService.searchItemsByText(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -57,4 +110,19 @@ public class ItemController {
         log.info("Добавление комментария к вещи с id={}: {}", itemId, commentDto);
         return itemService.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentAuthorNameDto>> getComments(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT)
+            @Positive @Max(KeysetCursor.MAX_LIMIT) Integer limit) {
+        log.info("Получение комментариев к вещи с id={}", itemId);
+        CommentPageDto page = itemService.getComments(itemId, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getComments());
+    }
 }
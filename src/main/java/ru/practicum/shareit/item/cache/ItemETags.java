@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Строгие ETag для GET /items/{itemId} (версия вещи) и GET /items (версия списка владельца).
+ * Версии меняют записи ItemServiceImpl, ItemImporter и BookingServiceImpl после фиксации транзакции,
+ * поэтому совпавший If-None-Match проверяется без обращения к БД и без сборки ответа.
+ * Каждая новая версия берется из общего счетчика, а ETag включает метку запуска процесса:
+ * после вытеснения записи или перезапуска старый ETag не совпадет ни с одной выданной версией.
+ * Список владельца зависит еще и от времени (last/next бронирования), поэтому его версия действует
+ * только до ближайшего начала бронирования из отданного ответа.
+ */
+@Component
+public class ItemETags {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<Long, Version> items;
+    private final Cache<Long, Version> owners;
+
+    public ItemETags(@Value("${shareit.item-etags.maximum-size:100000}") long maximumSize) {
+        this.items = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.owners = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public String itemTag(Long itemId) {
+        return toTag(items.get(itemId, id -> newVersion()));
+    }
+
+    /**
+     * Текущий ETag списка вещей владельца; истекшая по времени версия заменяется новой.
+     */
+    public String ownerTag(Long ownerId) {
+        Instant now = Instant.now();
+        return toTag(owners.asMap().compute(ownerId, (id, version) ->
+                version == null || version.isExpired(now) ? newVersion() : version));
+    }
+
+    /**
+     * Запоминает, до какого момента ответ с этим ETag не изменится сам собой; null - пока не изменят данные.
+     */
+    public void setOwnerTagValidUntil(Long ownerId, String tag, Instant validUntil) {
+        owners.asMap().computeIfPresent(ownerId, (id, version) ->
+                toTag(version).equals(tag) ? new Version(version.number(), validUntil) : version);
+    }
+
+    public void onItemChanged(Long itemId, Long ownerId) {
+        TransactionUtils.afterCommit(() -> {
+            items.invalidate(itemId);
+            owners.invalidate(ownerId);
+        });
+    }
+
+    public void onOwnerItemsChanged(Long ownerId) {
+        TransactionUtils.afterCommit(() -> owners.invalidate(ownerId));
+    }
+
+    /**
+     * Удаление пользователя каскадом удаляет его вещи и бронирования, их id здесь неизвестны.
+     */
+    public void onUserDeleted() {
+        TransactionUtils.afterCommit(() -> {
+            items.invalidateAll();
+            owners.invalidateAll();
+        });
+    }
+
+    private Version newVersion() {
+        return new Version(sequence.incrementAndGet(), null);
+    }
+
+    private String toTag(Version version) {
+        return "\"" + instance + "-" + version.number() + "\"";
+    }
+
+    private record Version(long number, Instant validUntil) {
+
+        boolean isExpired(Instant now) {
+            return validUntil != null && !now.isBefore(validUntil);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.CommentAuthorNameDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемая запись кэша вещи: сама вещь, комментарии и бронирования, нужные для last/next.
+ * Из прошлого хранится только самое позднее начало бронирования, из будущего - известные начала по возрастанию,
+ * поэтому по мере наступления бронирования "переезжают" из next в last без обращения к БД.
+ * При загрузке из БД известно только ближайшее будущее начало (knownUntil): когда оно наступает,
+ * следующее за ним неизвестно и запись нужно перечитать.
+ * Комментарии представлены счетчиком и первой страницей (LATEST_COMMENTS новейших); страница подгружается
+ * только для карточки вещи, в списках вещей она не нужна и остается null.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemReadModel {
+
+    public static final int LATEST_COMMENTS = 20;
+
+    private final ItemDto item;
+
+    private final Instant lastStart;
+
+    private final List<Instant> upcomingStarts;
+
+    private final List<CommentAuthorNameDto> latestComments;
+
+    private final long commentCount;
+
+    private final Instant knownUntil;
+
+    public Instant lastBooking(Instant now) {
+        int index = firstStartAfter(now) - 1;
+        return index >= 0 ? upcomingStarts.get(index) : lastStart;
+    }
+
+    public Instant nextBooking(Instant now) {
+        int index = firstStartAfter(now);
+        return index < upcomingStarts.size() ? upcomingStarts.get(index) : null;
+    }
+
+    public boolean isStale(Instant now) {
+        return knownUntil != null && !now.isBefore(knownUntil);
+    }
+
+    public ItemReadModel withBooking(Instant start) {
+        List<Instant> starts = new ArrayList<>(upcomingStarts);
+        int index = Collections.binarySearch(starts, start);
+        starts.add(index >= 0 ? index : -index - 1, start);
+        return new ItemReadModel(item, lastStart, List.copyOf(starts), latestComments, commentCount, knownUntil);
+    }
+
+    public ItemReadModel withComment(CommentAuthorNameDto comment) {
+        List<CommentAuthorNameDto> updated = null;
+        if (latestComments != null) {
+            updated = new ArrayList<>(LATEST_COMMENTS);
+            updated.add(comment);
+            updated.addAll(latestComments.subList(0, Math.min(latestComments.size(), LATEST_COMMENTS - 1)));
+            updated = List.copyOf(updated);
+        }
+        return new ItemReadModel(item, lastStart, upcomingStarts, updated, commentCount + 1, knownUntil);
+    }
+
+    public ItemReadModel withLatestComments(List<CommentAuthorNameDto> comments) {
+        return new ItemReadModel(item, lastStart, upcomingStarts, List.copyOf(comments), commentCount, knownUntil);
+    }
+
+    private int firstStartAfter(Instant now) {
+        int low = 0;
+        int high = upcomingStarts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upcomingStarts.get(mid).isAfter(now)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
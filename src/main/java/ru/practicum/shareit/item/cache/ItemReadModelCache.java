@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dal.ItemBookingBounds;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dal.ItemCommentCount;
+import ru.practicum.shareit.item.dto.CommentAuthorNameDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш карточек вещей для getItemById и getAllItemsByUserId.
+ * Записи дополняются на месте при создании бронирования и комментария и сбрасываются при изменении вещи,
+ * а после удаления пользователя - все сразу.
+ */
+@Component
+public class ItemReadModelCache {
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final Cache<Long, ItemReadModel> cache;
+
+    public ItemReadModelCache(ItemRepository itemRepository, BookingRepository bookingRepository,
+                              CommentRepository commentRepository, MeterRegistry meterRegistry,
+                              @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${shareit.item-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemReadModels", "cacheManager", "shareit");
+    }
+
+    public ItemReadModel get(Long itemId) {
+        ItemReadModel model = cache.get(itemId, this::loadById);
+        if (model.isStale(Instant.now())) {
+            cache.invalidate(itemId);
+            model = cache.get(itemId, this::loadById);
+        }
+        return model;
+    }
+
+    /**
+     * Карточка вещи с первой страницей комментариев; страница читается из БД при первом обращении.
+     */
+    public ItemReadModel getWithLatestComments(Long itemId) {
+        ItemReadModel model = get(itemId);
+        if (model.getLatestComments() != null) {
+            return model;
+        }
+        KeysetCursor first = KeysetCursor.FIRST;
+        ItemReadModel loaded = model.withLatestComments(commentRepository.getCommentsByItem(itemId,
+                first.getPosition(), first.getId(), Limit.of(ItemReadModel.LATEST_COMMENTS)));
+        // Если за время чтения добавился комментарий, в кэше уже другая запись - прочитанная страница неполна
+        cache.asMap().replace(itemId, model, loaded);
+        return loaded;
+    }
+
+    /**
+     * Возвращает карточки вещей в порядке списка, недостающие загружаются общими запросами.
+     */
+    public List<ItemReadModel> getAll(List<Item> items) {
+        Map<Long, Item> itemsById = items.stream()
+                .collect(Collectors.toMap(Item::getId, item -> item, (a, b) -> a, LinkedHashMap::new));
+        Map<Long, ItemReadModel> models = getAll(itemsById);
+        Instant now = Instant.now();
+        List<Long> staleIds = models.values().stream()
+                .filter(model -> model.isStale(now))
+                .map(model -> model.getItem().getId())
+                .toList();
+        if (!staleIds.isEmpty()) {
+            cache.invalidateAll(staleIds);
+            models = getAll(itemsById);
+        }
+        return itemsById.keySet().stream()
+                .map(models::get)
+                .toList();
+    }
+
+    public void onBookingCreated(Long itemId, Instant start) {
+        TransactionUtils.afterCommit(() -> cache.asMap().computeIfPresent(itemId,
+                (id, model) -> model.withBooking(start)));
+    }
+
+    public void onCommentAdded(CommentAuthorNameDto comment) {
+        TransactionUtils.afterCommit(() -> cache.asMap().computeIfPresent(comment.getItemId(),
+                (id, model) -> model.withComment(comment)));
+    }
+
+    public void evict(Long itemId) {
+        cache.invalidate(itemId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    /**
+     * Удаление пользователя каскадом удаляет его вещи, а из чужих карточек - его бронирования и комментарии.
+     */
+    public void onUserDeleted() {
+        TransactionUtils.afterCommit(cache::invalidateAll);
+    }
+
+    private Map<Long, ItemReadModel> getAll(Map<Long, Item> itemsById) {
+        return cache.getAll(itemsById.keySet(), missingIds -> load(missingIds.stream()
+                .map(itemsById::get)
+                .toList()));
+    }
+
+    private ItemReadModel loadById(Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundException("Вещь c id=" + itemId + " не существует"));
+        return load(List.of(item)).get(itemId);
+    }
+
+    private Map<Long, ItemReadModel> load(List<Item> items) {
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Instant now = Instant.now();
+
+        Map<Long, ItemBookingBounds> boundsByItem = bookingRepository.findBookingBoundsByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingBounds::getItemId, bounds -> bounds));
+        Map<Long, Long> commentCounts = commentRepository.countByItemIds(itemIds).stream()
+                .collect(Collectors.toMap(ItemCommentCount::getItemId, ItemCommentCount::getCount));
+
+        Map<Long, ItemReadModel> models = new HashMap<>();
+        for (Item item : items) {
+            ItemBookingBounds bounds = boundsByItem.get(item.getId());
+            Instant lastStart = bounds == null ? null : bounds.getLastStart();
+            Instant nextStart = bounds == null ? null : bounds.getNextStart();
+            models.put(item.getId(), new ItemReadModel(ItemMapper.toDto(item), lastStart,
+                    nextStart == null ? List.of() : List.of(nextStart), null,
+                    commentCounts.getOrDefault(item.getId(), 0L), nextStart));
+        }
+        return models;
+    }
+}
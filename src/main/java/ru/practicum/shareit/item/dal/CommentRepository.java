@@ -1,12 +1,26 @@
 package ru.practicum.shareit.item.dal;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentAuthorNameDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    /**
+     * Страница комментариев вещи от новых к старым вместе с именем автора - одним запросом, без обращения к users
+     * на каждый комментарий.
+     */
+    @Query("select new ru.practicum.shareit.item.dto.CommentAuthorNameDto(c.id, c.review, c.timestamp, u.name, " +
+            "c.itemId) from Comment c join User u on u.id = c.authorId where c.itemId = ?1 " +
+            "and (c.timestamp < ?2 or (c.timestamp = ?2 and c.id < ?3)) order by c.timestamp desc, c.id desc")
+    List<CommentAuthorNameDto> getCommentsByItem(Long itemId, Instant cursorCreated, Long cursorId, Limit limit);
 
-    List<Comment> findAllByItemIdIn(List<Long> itemIds);
+    @Query("select c.itemId as itemId, count(c) as count from Comment c where c.itemId in ?1 group by c.itemId")
+    List<ItemCommentCount> countByItemIds(Collection<Long> itemIds);
 }
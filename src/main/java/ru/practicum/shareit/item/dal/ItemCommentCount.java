@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.dal;
+
+public interface ItemCommentCount {
+
+    Long getItemId();
+
+    Long getCount();
+}
@@ -1,13 +1,50 @@
 package ru.practicum.shareit.item.dal;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    String OWNER_ITEMS_REGION = "query.items-by-owner";
+
+    /**
+     * Результат кэшируется в регионе query.items-by-owner и сбрасывается Hibernate при любой записи в items.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = OWNER_ITEMS_REGION)
+    })
     List<Item> findAllByOwnerId(Long userId);
 
-    List<Item> findByNameLikeIgnoreCaseAndAvailableTrueOrDescriptionLikeIgnoreCaseAndAvailableTrue(String text, String stext);
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Блокирует строку вещи до конца транзакции, сериализуя создание бронирований только этой вещи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    /**
+     * Поля поискового индекса без загрузки сущностей; страницы по возрастанию id после afterId.
+     */
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available " +
+            "from Item i where i.id > ?1 order by i.id")
+    List<ItemSearchEntry> findSearchEntries(Long afterId, Limit limit);
+
+    @Query(value = "select i.id from items i, to_tsquery('simple', ?1) q " +
+            "where i.available and i.search_vector @@ q " +
+            "order by ts_rank(i.search_vector, q) desc, i.id limit ?2 offset ?3", nativeQuery = true)
+    List<Long> searchAvailableItemIds(String tsQuery, int limit, int offset);
 }
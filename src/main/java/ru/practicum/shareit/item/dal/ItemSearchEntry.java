@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dal;
+
+public interface ItemSearchEntry {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
@@ -3,16 +3,13 @@ package ru.practicum.shareit.item.dto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 public class CommentMapper {
 
-    public static CommentDto toDto(Comment comment) {
-        return new CommentDto(comment.getId(), comment.getReview(), comment.getTimestamp(),
-                comment.getAuthorId(), comment.getItemId());
-    }
-
     public static Comment toEntity(CommentDto commentDto, Long userId, Long itemId) {
-        return new Comment(null, commentDto.getText(), Instant.now(),
+        // Точность колонки TIMESTAMP - микросекунды; иначе курсор по закэшированному комментарию разойдется с базой
+        return new Comment(null, commentDto.getText(), Instant.now().truncatedTo(ChronoUnit.MICROS),
                 userId, itemId);
     }
 
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CommentPageDto {
+
+    private List<CommentAuthorNameDto> comments;
+
+    private String nextCursor;
+}
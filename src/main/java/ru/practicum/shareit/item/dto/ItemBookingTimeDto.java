@@ -26,5 +26,10 @@ public class ItemBookingTimeDto {
 
     private Instant lastBooking;
 
-    private List<CommentDto> comments;
+    /**
+     * Новейшие комментарии; заполняются только в карточке вещи, дальше - GET /items/{itemId}/comments.
+     */
+    private List<CommentAuthorNameDto> comments;
+
+    private Long commentCount;
 }
@@ -25,4 +25,6 @@ public class ItemDto {
     @NotNull
     private Boolean available;
 
+    private Long requestId;
+
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Итог пакетной загрузки вещей. В errors попадают не более первых 1000 ошибок, failed учитывает все.
+ */
+@Data
+@AllArgsConstructor
+public class ItemImportResultDto {
+
+    private long imported;
+
+    private long failed;
+
+    private long elapsedMillis;
+
+    private double itemsPerSecond;
+
+    private List<ItemImportErrorDto> errors;
+}
@@ -6,26 +6,26 @@ public class ItemMapper {
 
     public static Item toEntity(ItemDto itemDto) {
         return new Item(null, itemDto.getOwnerId(), itemDto.getName(), itemDto.getDescription(),
-                itemDto.getAvailable());
+                itemDto.getAvailable(), itemDto.getRequestId());
     }
 
     public static Item toEntityFromFillItem(ItemBookingTimeDto itemDto) {
         return new Item(itemDto.getId(), itemDto.getOwnerId(), itemDto.getName(), itemDto.getDescription(),
-                itemDto.getAvailable());
+                itemDto.getAvailable(), null);
     }
 
     public static ItemDto toDto(Item item) {
         return new ItemDto(item.getId(), item.getOwnerId(), item.getName(), item.getDescription(),
-                item.getAvailable());
+                item.getAvailable(), item.getRequestId());
     }
 
     public static Item toUpdatingItem(UpdatingItemDto updatingItemDto) {
         return new Item(null, null, updatingItemDto.getName(), updatingItemDto.getDescription(),
-                updatingItemDto.getAvailable());
+                updatingItemDto.getAvailable(), null);
     }
 
     public static ItemBookingTimeDto toItemBookingDto(ItemDto itemDto) {
         return new ItemBookingTimeDto(itemDto.getId(), itemDto.getOwnerId(), itemDto.getName(),
-                itemDto.getDescription(), itemDto.getAvailable(), null, null, null);
+                itemDto.getDescription(), itemDto.getAvailable(), null, null, null, null);
     }
 }
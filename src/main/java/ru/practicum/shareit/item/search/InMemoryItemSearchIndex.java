@@ -0,0 +1,282 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.ReadReplicaRoutingDataSource;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dal.ItemSearchEntry;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс в памяти процесса: токен -> вещи, триграмма -> токены.
+ * Слово запроса совпадает с токеном целиком, по префиксу или как подстрока (через триграммы);
+ * вещь попадает в выдачу, только если совпали все слова запроса.
+ * <p>
+ * Индекс строится при старте и пересобирается из БД раз в shareit.search.resync-interval, чтобы
+ * подхватить изменения, прошедшие мимо этого экземпляра сервиса (каскадные удаления, другие узлы).
+ * Пересборка читает постранично только поля индекса и подменяет индекс целиком; изменения,
+ * примененные во время пересборки, переносятся в новый индекс перед подменой.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int SUBSTRING_SCORE = 1;
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final Duration resyncInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    /**
+     * Изменения, пришедшие во время пересборки; null, пока пересборка не идет.
+     */
+    private List<Document> changedDuringRebuild;
+    private ScheduledExecutorService resyncExecutor;
+
+    public InMemoryItemSearchIndex(ItemRepository itemRepository,
+                                   @Value("${shareit.search.resync-interval:5m}") Duration resyncInterval) {
+        this.itemRepository = itemRepository;
+        this.resyncInterval = resyncInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int items = rebuild();
+        log.info("Поисковый индекс вещей построен: {} вещей", items);
+        if (resyncInterval.isPositive()) {
+            resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-search-resync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            resyncExecutor.scheduleWithFixedDelay(this::resync, resyncInterval.toMillis(),
+                    resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (resyncExecutor != null) {
+            resyncExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Строит индекс заново по данным БД и подменяет текущий. Возвращает число доступных вещей в индексе.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                throw new IllegalStateException("Пересборка поискового индекса уже выполняется");
+            }
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings rebuilt = new Postings();
+        try {
+            long afterId = 0;
+            List<ItemSearchEntry> page;
+            do {
+                long pageAfterId = afterId;
+                page = ReadReplicaRoutingDataSource.readFromPrimary(() ->
+                        itemRepository.findSearchEntries(pageAfterId, Limit.of(REBUILD_PAGE_SIZE)));
+                for (ItemSearchEntry entry : page) {
+                    rebuilt.put(new Document(entry.getId(), entry.getName(), entry.getDescription(),
+                            entry.getAvailable()));
+                    afterId = entry.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(rebuilt::put);
+            changedDuringRebuild = null;
+            postings = rebuilt;
+            return rebuilt.tokensByItem.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void resync() {
+        try {
+            int items = rebuild();
+            log.debug("Поисковый индекс вещей пересобран: {} вещей", items);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось пересобрать поисковый индекс вещей", e);
+        }
+    }
+
+    /**
+     * Применяется после фиксации текущей транзакции, вне транзакции - сразу.
+     */
+    @Override
+    public void index(Item item) {
+        Document document = new Document(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                postings.put(document);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryTokens = ItemSearchTokenizer.tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = postings.match(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(from)
+                    .limit(size)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Document(Long id, String name, String description, Boolean available) {
+    }
+
+    private static class Postings {
+
+        private final NavigableMap<String, Map<Long, Integer>> weightsByToken = new TreeMap<>();
+        private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+        private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+
+        void put(Document document) {
+            removeItem(document.id());
+            if (!Boolean.TRUE.equals(document.available())) {
+                return;
+            }
+            Map<String, Integer> weights = new HashMap<>();
+            ItemSearchTokenizer.tokenize(document.description()).forEach(token ->
+                    weights.merge(token, DESCRIPTION_WEIGHT, Math::max));
+            ItemSearchTokenizer.tokenize(document.name()).forEach(token ->
+                    weights.merge(token, NAME_WEIGHT, Math::max));
+            weights.forEach((token, weight) -> addPosting(token, document.id(), weight));
+            tokensByItem.put(document.id(), weights.keySet());
+        }
+
+        Map<Long, Integer> match(String queryToken) {
+            Map<Long, Integer> scores = new HashMap<>();
+            weightsByToken.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                    .forEach((token, weights) -> {
+                        int score = token.equals(queryToken) ? EXACT_SCORE : PREFIX_SCORE;
+                        weights.forEach((itemId, weight) -> scores.merge(itemId, score * weight, Math::max));
+                    });
+            for (String token : substringCandidates(queryToken)) {
+                if (!token.startsWith(queryToken) && token.contains(queryToken)) {
+                    weightsByToken.get(token).forEach((itemId, weight) ->
+                            scores.merge(itemId, SUBSTRING_SCORE * weight, Math::max));
+                }
+            }
+            return scores;
+        }
+
+        private Set<String> substringCandidates(String queryToken) {
+            List<String> trigrams = ItemSearchTokenizer.trigrams(queryToken);
+            if (trigrams.isEmpty()) {
+                return Set.of();
+            }
+            Set<String> candidates = null;
+            for (String trigram : trigrams) {
+                Set<String> tokens = tokensByTrigram.getOrDefault(trigram, Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(tokens);
+                } else {
+                    candidates.retainAll(tokens);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            return candidates;
+        }
+
+        private void addPosting(String token, Long itemId, int weight) {
+            weightsByToken.computeIfAbsent(token, key -> {
+                ItemSearchTokenizer.trigrams(key).forEach(trigram ->
+                        tokensByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key));
+                return new HashMap<>();
+            }).put(itemId, weight);
+        }
+
+        private void removeItem(Long itemId) {
+            Set<String> tokens = tokensByItem.remove(itemId);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Map<Long, Integer> weights = weightsByToken.get(token);
+                weights.remove(itemId);
+                if (weights.isEmpty()) {
+                    weightsByToken.remove(token);
+                    ItemSearchTokenizer.trigrams(token).forEach(trigram -> {
+                        Set<String> trigramTokens = tokensByTrigram.get(trigram);
+                        trigramTokens.remove(token);
+                        if (trigramTokens.isEmpty()) {
+                            tokensByTrigram.remove(trigram);
+                        }
+                    });
+                }
+            }
+        }
+    }
+}
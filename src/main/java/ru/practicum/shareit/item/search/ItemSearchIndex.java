@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту названия и описания.
+ * Реализация выбирается свойством shareit.search.engine (memory или postgres).
+ */
+public interface ItemSearchIndex {
+
+    /**
+     * Добавляет вещь в индекс или обновляет ее после изменения.
+     * Внутри транзакции изменение применяется после ее фиксации.
+     */
+    void index(Item item);
+
+    /**
+     * Возвращает id найденных вещей, отсортированные по убыванию релевантности.
+     */
+    List<Long> search(String text, int from, int size);
+}
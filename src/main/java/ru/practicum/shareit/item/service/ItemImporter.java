@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.item.cache.ItemETags;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.notification.ItemKeywordIndex;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковая загрузка вещей из JSON-массива или NDJSON.
+ * Строки читаются и проверяются по одной, корректные сохраняются пачками по shareit.item-import.batch-size,
+ * каждая пачка - в своей транзакции, так что память не растет с размером файла.
+ */
+@Slf4j
+@Component
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ItemImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemKeywordIndex itemKeywordIndex;
+    private final ItemETags itemETags;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository, ItemSearchIndex itemSearchIndex,
+                        ItemKeywordIndex itemKeywordIndex, ItemETags itemETags, UserService userService,
+                        ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager,
+                        @Value("${shareit.item-import.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemKeywordIndex = itemKeywordIndex;
+        this.itemETags = itemETags;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ItemImportResultDto importItems(Long userId, InputStream json) throws IOException {
+        userService.existUser(userId);
+        long startedAt = System.nanoTime();
+        long row = 0;
+        long imported = 0;
+        long failed = 0;
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        List<Item> batch = new ArrayList<>(batchSize);
+
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(json)) {
+            while (true) {
+                ItemDto itemDto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    itemDto = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // после синтаксической ошибки позиция в потоке не определена, поэтому загрузка прекращается
+                    failed++;
+                    addError(errors, row, "Некорректный JSON, загрузка остановлена: " + e.getOriginalMessage());
+                    break;
+                }
+                String violation = validate(itemDto);
+                if (violation != null) {
+                    failed++;
+                    addError(errors, row, violation);
+                    continue;
+                }
+                Item item = ItemMapper.toEntity(itemDto);
+                item.setOwnerId(userId);
+                batch.add(item);
+                if (batch.size() == batchSize) {
+                    imported += save(batch);
+                }
+            }
+        }
+        imported += save(batch);
+
+        long elapsedMillis = Math.max((System.nanoTime() - startedAt) / 1_000_000, 1);
+        double itemsPerSecond = imported * 1000.0 / elapsedMillis;
+        log.info("Загружено {} вещей пользователя id={} за {} мс ({} вещей/с), ошибок: {}", imported, userId,
+                elapsedMillis, Math.round(itemsPerSecond), failed);
+        return new ItemImportResultDto(imported, failed, elapsedMillis, itemsPerSecond, errors);
+    }
+
+    private int save(List<Item> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(batch));
+        batch.forEach(itemSearchIndex::index);
+        batch.forEach(itemKeywordIndex::index);
+        itemETags.onOwnerItemsChanged(batch.getFirst().getOwnerId());
+        int saved = batch.size();
+        batch.clear();
+        return saved;
+    }
+
+    private String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return "Пустая строка";
+        }
+        if (itemDto.getRequestId() != null) {
+            // Проверка существования запроса для каждой строки свела бы пакетную вставку к построчной
+            return "requestId: не поддерживается при массовой загрузке";
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void addError(List<ItemImportErrorDto> errors, long row, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ItemImportErrorDto(row, error));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,10 +16,14 @@ public interface ItemService {
 
     List<ItemBookingTimeDto> getAllItemsByUserId(Long userId);
 
-    List<ItemDto> searchItemsByText(String text);
+    List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemDto> searchItemsByText(String text, int from, int size);
 
     void isAvailable(ItemBookingTimeDto item);
 
     CommentAuthorNameDto addComment(Long userId, Long itemId, CommentDto commentDto);
 
+    CommentPageDto getComments(Long itemId, String cursor, int limit);
+
 }
@@ -1,22 +1,33 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dal.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.interval.BookingIntervals;
+import ru.practicum.shareit.booking.interval.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.IsntOwnerException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotMetConditions;
+import ru.practicum.shareit.item.cache.ItemETags;
+import ru.practicum.shareit.item.cache.ItemReadModel;
+import ru.practicum.shareit.item.cache.ItemReadModelCache;
 import ru.practicum.shareit.item.dal.CommentRepository;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.request.notification.ItemKeywordIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -27,20 +38,33 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserServiceImpl userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemReadModelCache itemReadModelCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemKeywordIndex itemKeywordIndex;
+    private final ItemETags itemETags;
 
     @Override
     @Transactional
     public ItemDto addItem(ItemDto itemDto, Long userId) {
         userService.existUser(userId);
+        if (itemDto.getRequestId() != null && !itemRequestRepository.existsById(itemDto.getRequestId())) {
+            throw new NotFoundException("Запрос c id=" + itemDto.getRequestId() + " не существует");
+        }
         Item item = ItemMapper.toEntity(itemDto);
         item.setOwnerId(userId);
         itemRepository.save(item);
+        itemSearchIndex.index(item);
+        itemKeywordIndex.index(item);
+        itemETags.onOwnerItemsChanged(userId);
         return ItemMapper.toDto(item);
     }
 
@@ -60,6 +84,10 @@ public class ItemServiceImpl implements ItemService {
                 updatingItem.setAvailable(itemDto.getAvailable());
             }
             itemRepository.save(updatingItem);
+            itemSearchIndex.index(updatingItem);
+            itemKeywordIndex.index(updatingItem);
+            itemReadModelCache.evict(itemId);
+            itemETags.onItemChanged(itemId, userId);
             return ItemMapper.toDto(updatingItem);
         } else {
             throw new IsntOwnerException("Только собственник вещи может ее обновить");
@@ -68,34 +96,59 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemBookingTimeDto getItemById(Long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
-                new NotFoundException("Вещь c id=" + itemId + " не существует"));
-
-        ItemBookingTimeDto itemBookingTimeDto = ItemMapper.toItemBookingDto(ItemMapper.toDto(item));
-        fillComments(List.of(itemBookingTimeDto));
-
+        ItemReadModel model = itemReadModelCache.getWithLatestComments(itemId);
+        ItemBookingTimeDto itemBookingTimeDto = ItemMapper.toItemBookingDto(model.getItem());
+        itemBookingTimeDto.setComments(model.getLatestComments());
+        itemBookingTimeDto.setCommentCount(model.getCommentCount());
         return itemBookingTimeDto;
     }
 
     @Override
-    @Transactional
     public List<ItemBookingTimeDto> getAllItemsByUserId(Long userId) {
         userService.existUser(userId);
-        List<ItemBookingTimeDto> items = itemRepository.findAllByOwnerId(userId).stream()
-                .map(ItemMapper::toDto)
-                .map(ItemMapper::toItemBookingDto)
+        Instant now = Instant.now();
+        return itemReadModelCache.getAll(itemRepository.findAllByOwnerId(userId)).stream()
+                .map(model -> {
+                    ItemBookingTimeDto item = ItemMapper.toItemBookingDto(model.getItem());
+                    item.setLastBooking(model.lastBooking(now));
+                    item.setNextBooking(model.nextBooking(now));
+                    item.setCommentCount(model.getCommentCount());
+                    return item;
+                })
                 .toList();
-        fillLastNextBooking(items);
-        fillComments(items);
-        return items;
     }
 
+    /**
+     * Свободные окна вещи в [from, to); прошедшее время свободным не считается.
+     */
     @Override
-    public List<ItemDto> searchItemsByText(String text) {
+    public List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new NotMetConditions("Неправильный период (from должен быть раньше to)");
+        }
+        itemReadModelCache.get(itemId);
+        long now = BookingIntervals.toMicros(Instant.now());
+        long fromMicros = Math.max(BookingIntervals.toMicros(from.toInstant(ZoneOffset.UTC)), now);
+        long toMicros = BookingIntervals.toMicros(to.toInstant(ZoneOffset.UTC));
+        if (fromMicros >= toMicros) {
+            return List.of();
+        }
+        return itemAvailabilityIndex.get(itemId).freeWindows(fromMicros, toMicros).stream()
+                .map(window -> new AvailabilityWindowDto(toLocalDateTime(window[0]), toLocalDateTime(window[1])))
+                .toList();
+    }
+
+    @Override
+    public List<ItemDto> searchItemsByText(String text, int from, int size) {
         if (text == null || text.isEmpty()) {
             return List.of();
         }
-        return itemRepository.findByNameLikeIgnoreCaseAndAvailableTrueOrDescriptionLikeIgnoreCaseAndAvailableTrue(text, text).stream()
+        List<Long> itemIds = itemSearchIndex.search(text, from, size);
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toDto)
                 .toList();
     }
@@ -111,75 +164,58 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentAuthorNameDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         UserDto user = userService.getUserById(userId);
-        getItem(itemId);
+        Long ownerId = itemReadModelCache.get(itemId).getItem().getOwnerId();
         isBooker(userId, itemId);
         Comment comment = CommentMapper.toEntity(commentDto, userId, itemId);
         commentRepository.save(comment);
-        return CommentMapper.toCommentAuthorNameDto(comment, user.getName());
+        CommentAuthorNameDto commentAuthorNameDto = CommentMapper.toCommentAuthorNameDto(comment, user.getName());
+        itemReadModelCache.onCommentAdded(commentAuthorNameDto);
+        itemETags.onItemChanged(itemId, ownerId);
+        return commentAuthorNameDto;
+    }
+
+    /**
+     * Первая страница не длиннее закэшированной отдается из карточки вещи, остальные читаются из БД.
+     */
+    @Override
+    public CommentPageDto getComments(Long itemId, String cursor, int limit) {
+        if (cursor == null && limit <= ItemReadModel.LATEST_COMMENTS) {
+            ItemReadModel model = itemReadModelCache.getWithLatestComments(itemId);
+            List<CommentAuthorNameDto> latest = model.getLatestComments();
+            List<CommentAuthorNameDto> page = latest.subList(0, Math.min(limit, latest.size()));
+            boolean hasMore = !page.isEmpty() && model.getCommentCount() > page.size();
+            return new CommentPageDto(page, hasMore ? toCursor(page.getLast()) : null);
+        }
+        itemReadModelCache.get(itemId);
+        KeysetCursor from = KeysetCursor.decode(cursor);
+        List<CommentAuthorNameDto> comments = commentRepository.getCommentsByItem(itemId, from.getPosition(),
+                from.getId(), Limit.of(limit + 1));
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            return new CommentPageDto(comments, toCursor(comments.getLast()));
+        }
+        return new CommentPageDto(comments, null);
+    }
+
+    private static String toCursor(CommentAuthorNameDto comment) {
+        return new KeysetCursor(comment.getCreated(), comment.getId()).encode();
     }
 
     private void isBooker(Long userId, Long itemId) {
-        List<Booking> bookings = bookingRepository.getAllBookingByBooker(userId);
-        boolean hasPastBooking = bookings.stream().anyMatch(b ->
-                b.getItem().getId().equals(itemId) &&
-                        b.getEnd().isBefore(LocalDateTime.now().toInstant(ZoneOffset.UTC)) &&
-                        b.getBookingStatus() == BookingStatus.APPROVED
-        );
+        boolean hasPastBooking = bookingRepository.existsByBookerIdAndItemIdAndBookingStatusAndEndBefore(userId,
+                itemId, BookingStatus.APPROVED, Instant.now());
         if (!hasPastBooking) {
             throw new NotMetConditions("Комментарий может оставить только пользователь, " +
                     "бронировавший вещь и завершивший аренду.");
         }
     }
 
+    private static LocalDateTime toLocalDateTime(long micros) {
+        return LocalDateTime.ofInstant(BookingIntervals.toInstant(micros), ZoneOffset.UTC);
+    }
+
     private Item getItem(Long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Вещь c id=" + itemId + " не существует"));
     }
-
-    private void fillComments(List<ItemBookingTimeDto> items) {
-        List<Long> itemIds = items.stream().map(ItemBookingTimeDto::getId).toList();
-        List<CommentDto> commentsDto = commentRepository.findAllByItemIdIn(itemIds).stream()
-                .map(CommentMapper::toDto)
-                .toList();
-        Map<Long, List<CommentDto>> commentsByItemId = commentsDto.stream()
-                .collect(Collectors.groupingBy(CommentDto::getItemId));
-
-        for (ItemBookingTimeDto item : items) {
-            item.setComments(commentsByItemId.getOrDefault(item.getId(), Collections.emptyList()));
-        }
-    }
-
-    private void fillLastNextBooking(List<ItemBookingTimeDto> items) {
-        List<Long> itemIds = items.stream().map(ItemBookingTimeDto::getId).toList();
-        List<Booking> bookings = bookingRepository.findAllByItemIdIn(itemIds);
-
-        Instant current = Instant.now();
-
-        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        for (ItemBookingTimeDto item : items) {
-            List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
-
-            List<Booking> sortedBookings = itemBookings.stream()
-                    .sorted(Comparator.comparing(Booking::getStart))
-                    .toList();
-
-            Instant lastBooking = null;
-            Instant nextBooking = null;
-
-            for (Booking booking : sortedBookings) {
-                if (booking.getStart().isBefore(current) || booking.getStart().equals(current)) {
-                    if (lastBooking == null || booking.getStart().isAfter(lastBooking)) {
-                        lastBooking = booking.getStart();
-                    }
-                } else if (nextBooking == null || booking.getStart().isBefore(nextBooking)) {
-                    nextBooking = booking.getStart();
-                }
-            }
-
-            item.setLastBooking(lastBooking);
-            item.setNextBooking(nextBooking);
-        }
-    }
 }
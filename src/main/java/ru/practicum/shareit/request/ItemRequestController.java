@@ -1,12 +1,66 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.util.KeysetCursor;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Slf4j
 @RestController
+@RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final RequestService requestService;
+
+    @PostMapping
+    public ItemRequestDto addRequest(@RequestBody @Valid ItemRequestDto itemRequestDto,
+                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Добавление нового запроса в коллекцию requests: {}", itemRequestDto);
+        return requestService.addRequest(itemRequestDto, userId);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestWithAnswersDto>> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT)
+                                                                          @Positive @Max(KeysetCursor.MAX_LIMIT) Integer limit) {
+        log.info("Получение запросов из коллекции requests по requesterId={}", userId);
+        return toResponse(requestService.getOwnRequests(userId, cursor, limit));
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestWithAnswersDto>> getOtherRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(defaultValue = KeysetCursor.DEFAULT_LIMIT)
+                                                                            @Positive @Max(KeysetCursor.MAX_LIMIT) Integer limit) {
+        log.info("Получение запросов других пользователей из коллекции requests для userId={}", userId);
+        return toResponse(requestService.getOtherRequests(userId, cursor, limit));
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestWithAnswersDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @PathVariable Long requestId) {
+        log.info("Получение запроса из коллекции requests по id={}", requestId);
+        return requestService.getRequestById(userId, requestId);
+    }
+
+    private ResponseEntity<List<ItemRequestWithAnswersDto>> toResponse(ItemRequestPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRequests());
+    }
 }
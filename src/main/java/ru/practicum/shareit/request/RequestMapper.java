@@ -1,4 +1,29 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
 public class RequestMapper {
+
+    public static ItemRequest toEntity(ItemRequestDto itemRequestDto) {
+        return new ItemRequest(null, itemRequestDto.getDescription(), null, null);
+    }
+
+    public static ItemRequestDto toDto(ItemRequest itemRequest) {
+        return new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated());
+    }
+
+    public static ItemRequestWithAnswersDto toDtoWithAnswers(ItemRequest itemRequest, List<ItemAnswerDto> items) {
+        return new ItemRequestWithAnswersDto(itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getCreated(), items);
+    }
+
+    public static ItemAnswerDto toAnswerDto(Item item) {
+        return new ItemAnswerDto(item.getId(), item.getName(), item.getOwnerId());
+    }
 }
@@ -1,4 +1,16 @@
 package ru.practicum.shareit.request;
 
-public class RequestService {
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+
+public interface RequestService {
+
+    ItemRequestDto addRequest(ItemRequestDto itemRequestDto, Long userId);
+
+    ItemRequestPageDto getOwnRequests(Long userId, String cursor, int limit);
+
+    ItemRequestPageDto getOtherRequests(Long userId, String cursor, int limit);
+
+    ItemRequestWithAnswersDto getRequestById(Long userId, Long requestId);
 }
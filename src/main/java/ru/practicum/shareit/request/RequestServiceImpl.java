@@ -0,0 +1,99 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.notification.RequestMatchingPipeline;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class RequestServiceImpl implements RequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+    private final RequestMatchingPipeline requestMatchingPipeline;
+
+    @Override
+    @Transactional
+    public ItemRequestDto addRequest(ItemRequestDto itemRequestDto, Long userId) {
+        userService.existUser(userId);
+        ItemRequest itemRequest = RequestMapper.toEntity(itemRequestDto);
+        itemRequest.setRequesterId(userId);
+        // Точность колонки TIMESTAMP - микросекунды; иначе курсор, выданный из памяти, разойдется с базой
+        itemRequest.setCreated(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        itemRequestRepository.save(itemRequest);
+        requestMatchingPipeline.submit(itemRequest);
+        return RequestMapper.toDto(itemRequest);
+    }
+
+    @Override
+    public ItemRequestPageDto getOwnRequests(Long userId, String cursor, int limit) {
+        userService.existUser(userId);
+        KeysetCursor from = KeysetCursor.decode(cursor);
+        return toPage(itemRequestRepository.getRequestsByRequester(userId, from.getPosition(), from.getId(),
+                Limit.of(limit + 1)), limit);
+    }
+
+    @Override
+    public ItemRequestPageDto getOtherRequests(Long userId, String cursor, int limit) {
+        userService.existUser(userId);
+        KeysetCursor from = KeysetCursor.decode(cursor);
+        return toPage(itemRequestRepository.getRequestsOfOthers(userId, from.getPosition(), from.getId(),
+                Limit.of(limit + 1)), limit);
+    }
+
+    @Override
+    public ItemRequestWithAnswersDto getRequestById(Long userId, Long requestId) {
+        userService.existUser(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос c id=" + requestId + " не существует"));
+        List<ItemAnswerDto> items = itemRepository.findAllByRequestIdIn(List.of(requestId)).stream()
+                .map(RequestMapper::toAnswerDto)
+                .toList();
+        return RequestMapper.toDtoWithAnswers(itemRequest, items);
+    }
+
+    /**
+     * Страница запрашивается на одну запись длиннее: лишняя запись означает, что есть следующая.
+     * Ответы на все запросы страницы загружаются одним запросом по items.request_id.
+     */
+    private ItemRequestPageDto toPage(List<ItemRequest> requests, int limit) {
+        String nextCursor = null;
+        if (requests.size() > limit) {
+            requests = requests.subList(0, limit);
+            ItemRequest last = requests.getLast();
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = requests.isEmpty() ? Map.of() :
+                itemRepository.findAllByRequestIdIn(requests.stream().map(ItemRequest::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(Item::getRequestId,
+                                Collectors.mapping(RequestMapper::toAnswerDto, Collectors.toList())));
+        return new ItemRequestPageDto(requests.stream()
+                .map(request -> RequestMapper.toDtoWithAnswers(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .toList(), nextCursor);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    @Query("select r from ItemRequest r where r.requesterId = ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) order by r.created desc, r.id desc")
+    List<ItemRequest> getRequestsByRequester(Long userId, Instant cursorCreated, Long cursorId, Limit limit);
+
+    @Query("select r from ItemRequest r where r.requesterId <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) order by r.created desc, r.id desc")
+    List<ItemRequest> getRequestsOfOthers(Long userId, Instant cursorCreated, Long cursorId, Limit limit);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.dal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.request.notification.RequestNotification;
+
+public interface RequestNotificationRepository extends JpaRepository<RequestNotification, Long> {
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Вещь, добавленная в ответ на запрос.
+ */
+@Data
+@AllArgsConstructor
+public class ItemAnswerDto {
+
+    private Long id;
+
+    private String name;
+
+    private Long ownerId;
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.request.dto;
 
-import ru.practicum.shareit.user.model.User;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 
 import java.time.Instant;
 
-/**
- * TODO Sprint add-item-requests.
- */
+@Data
+@AllArgsConstructor
 public class ItemRequestDto {
-    private final Instant created = Instant.now();
+
     private Long id;
-    private String name;
-    private User requestor;
+
+    @NotBlank
+    @Size(max = 512)
+    private String description;
+
+    private Instant created;
 }
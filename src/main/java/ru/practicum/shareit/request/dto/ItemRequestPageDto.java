@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemRequestPageDto {
+
+    private List<ItemRequestWithAnswersDto> requests;
+
+    private String nextCursor;
+}
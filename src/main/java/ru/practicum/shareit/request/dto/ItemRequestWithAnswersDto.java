@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemRequestWithAnswersDto {
+
+    private Long id;
+
+    private String description;
+
+    private Instant created;
+
+    private List<ItemAnswerDto> items;
+}
@@ -1,12 +1,27 @@
 package ru.practicum.shareit.request.model;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
 
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@Table(name = "requests")
 public class ItemRequest {
-    /*private final Instant created = Instant.now();
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    private String name;
-    private User requester;*/
+
+    private String description;
+
+    @Column(name = "requester_id")
+    private Long requesterId;
+
+    private Instant created;
 }
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.request.notification;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.ReadReplicaRoutingDataSource;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchTokenizer;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс ключевых слов всех вещей (в том числе недоступных): токен -> вещи -> владельцы.
+ * По нему конвейер уведомлений находит владельцев, у которых есть что-то подходящее под новый запрос.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemKeywordIndex {
+
+    /**
+     * Более короткие слова запроса ("в", "на", "и") дают слишком много случайных совпадений.
+     */
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> itemsByToken = new HashMap<>();
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+    private final Map<Long, Long> ownerByItem = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = ReadReplicaRoutingDataSource.readFromPrimary(itemRepository::findAll);
+        items.forEach(this::index);
+        log.info("Индекс ключевых слов вещей построен: {} вещей, {} токенов", items.size(), itemsByToken.size());
+    }
+
+    /**
+     * Добавляет или обновляет вещь после фиксации текущей транзакции: откат не должен оставить в индексе
+     * вещь, на которую потом сошлется уведомление.
+     */
+    public void index(Item item) {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwnerId();
+        Set<String> tokens = new HashSet<>(ItemSearchTokenizer.tokenize(item.getName()));
+        tokens.addAll(ItemSearchTokenizer.tokenize(item.getDescription()));
+        tokens.removeIf(token -> token.length() < MIN_TOKEN_LENGTH);
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeItem(itemId);
+                tokens.forEach(token -> itemsByToken.computeIfAbsent(token, key -> new HashSet<>()).add(itemId));
+                tokensByItem.put(itemId, tokens);
+                ownerByItem.put(itemId, ownerId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Вещи удаляются из БД только каскадом вместе с владельцем; без этого уведомления ссылались бы на него.
+     */
+    public void onOwnerDeleted(Long ownerId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> itemIds = ownerByItem.entrySet().stream()
+                        .filter(entry -> entry.getValue().equals(ownerId))
+                        .map(Map.Entry::getKey)
+                        .toList();
+                itemIds.forEach(this::removeItem);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Возвращает владельцев вещей, совпавших хотя бы по одному слову текста, и id этих вещей.
+     */
+    public Map<Long, SortedSet<Long>> findOwners(String text) {
+        List<String> tokens = ItemSearchTokenizer.tokenize(text).stream()
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+                .toList();
+        Map<Long, SortedSet<Long>> itemsByOwner = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                for (Long itemId : itemsByToken.getOrDefault(token, Set.of())) {
+                    itemsByOwner.computeIfAbsent(ownerByItem.get(itemId), key -> new TreeSet<>()).add(itemId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return itemsByOwner;
+    }
+
+    private void removeItem(Long itemId) {
+        Set<String> tokens = tokensByItem.remove(itemId);
+        ownerByItem.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> items = itemsByToken.get(token);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                itemsByToken.remove(token);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.request-notifications.sink", havingValue = "log", matchIfMissing = true)
+public class LogRequestNotificationSink implements RequestNotificationSink {
+
+    @Override
+    public void publish(List<RequestNotification> notifications) {
+        notifications.forEach(notification ->
+                log.info("Уведомление владельца id={} о запросе id={}, подходящие вещи: {}",
+                        notification.getOwnerId(), notification.getRequestId(), notification.getItemIds()));
+    }
+}
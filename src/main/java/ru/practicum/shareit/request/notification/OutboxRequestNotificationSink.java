@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.dal.RequestNotificationRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.request-notifications.sink", havingValue = "outbox")
+public class OutboxRequestNotificationSink implements RequestNotificationSink {
+
+    private final RequestNotificationRepository requestNotificationRepository;
+
+    @Override
+    public void publish(List<RequestNotification> notifications) {
+        requestNotificationRepository.saveAll(notifications);
+    }
+}
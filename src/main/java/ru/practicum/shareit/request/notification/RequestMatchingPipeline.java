@@ -0,0 +1,168 @@
+package ru.practicum.shareit.request.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Асинхронная рассылка уведомлений о новых запросах владельцам подходящих вещей.
+ * Запрос после фиксации транзакции кладется в ограниченную очередь; отдельный поток забирает запросы пачками,
+ * сопоставляет их с {@link ItemKeywordIndex} и отдает уведомления в {@link RequestNotificationSink}.
+ * Если очередь заполнена, создающий поток ждет до offer-timeout, после чего уведомление отбрасывается.
+ */
+@Slf4j
+@Component
+public class RequestMatchingPipeline {
+
+    private static final int MAX_ITEMS_PER_NOTIFICATION = 20;
+
+    private final ItemKeywordIndex itemKeywordIndex;
+    private final RequestNotificationSink sink;
+    private final BlockingQueue<MatchTask> queue;
+    private final Duration offerTimeout;
+    private final int batchSize;
+    private final Timer matchLatency;
+    private final Counter rejected;
+    private final Counter published;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public RequestMatchingPipeline(ItemKeywordIndex itemKeywordIndex, RequestNotificationSink sink,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${shareit.request-notifications.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${shareit.request-notifications.offer-timeout:50ms}") Duration offerTimeout,
+                                   @Value("${shareit.request-notifications.batch-size:100}") int batchSize) {
+        this.itemKeywordIndex = itemKeywordIndex;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.offerTimeout = offerTimeout;
+        this.batchSize = batchSize;
+        Gauge.builder("shareit.request.matching.queue.depth", queue, Collection::size)
+                .description("Запросы, ожидающие сопоставления с вещами")
+                .register(meterRegistry);
+        this.matchLatency = Timer.builder("shareit.request.matching.latency")
+                .description("Время от фиксации запроса до передачи уведомлений получателю")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shareit.request.matching.rejected")
+                .description("Запросы, не попавшие в заполненную очередь")
+                .register(meterRegistry);
+        this.published = Counter.builder("shareit.request.notifications.published")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "request-matching");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Остановка конвейера уведомлений: {} запросов не обработано", queue.size());
+        }
+    }
+
+    /**
+     * Ставит запрос в очередь после фиксации текущей транзакции.
+     */
+    public void submit(ItemRequest itemRequest) {
+        MatchTask task = new MatchTask(itemRequest.getId(), itemRequest.getRequesterId(),
+                itemRequest.getDescription());
+        TransactionUtils.afterCommit(() -> enqueue(task));
+    }
+
+    private void enqueue(MatchTask task) {
+        boolean accepted;
+        try {
+            accepted = queue.offer(task.withEnqueuedAt(System.nanoTime()), offerTimeout.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            log.warn("Очередь уведомлений заполнена, запрос id={} пропущен", task.requestId());
+        }
+    }
+
+    private void run() {
+        List<MatchTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                MatchTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ошибка рассылки уведомлений о {} запросах", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<MatchTask> batch) {
+        Instant now = Instant.now();
+        List<RequestNotification> notifications = new ArrayList<>();
+        for (MatchTask task : batch) {
+            Map<Long, SortedSet<Long>> itemsByOwner = itemKeywordIndex.findOwners(task.description());
+            itemsByOwner.remove(task.requesterId());
+            itemsByOwner.forEach((ownerId, itemIds) -> notifications.add(new RequestNotification(null,
+                    task.requestId(), ownerId, itemIds.stream()
+                    .limit(MAX_ITEMS_PER_NOTIFICATION)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")), now)));
+        }
+        for (int from = 0; from < notifications.size(); from += batchSize) {
+            sink.publish(notifications.subList(from, Math.min(from + batchSize, notifications.size())));
+        }
+        published.increment(notifications.size());
+        long finishedAt = System.nanoTime();
+        batch.forEach(task -> matchLatency.record(finishedAt - task.enqueuedAt(), TimeUnit.NANOSECONDS));
+    }
+
+    private record MatchTask(Long requestId, Long requesterId, String description, long enqueuedAt) {
+
+        MatchTask(Long requestId, Long requesterId, String description) {
+            this(requestId, requesterId, description, 0);
+        }
+
+        MatchTask withEnqueuedAt(long enqueuedAt) {
+            return new MatchTask(requestId, requesterId, description, enqueuedAt);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.request.notification;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Уведомление владельца о запросе, под который подходят его вещи.
+ * При sink=outbox сохраняется в таблицу request_notifications для доставки внешним процессом.
+ */
+@Data
+@AllArgsConstructor
+@RequiredArgsConstructor
+@Entity
+@Table(name = "request_notifications")
+public class RequestNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_notifications_seq")
+    @SequenceGenerator(name = "request_notifications_seq", sequenceName = "request_notifications_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    /**
+     * Id подходящих вещей владельца через запятую.
+     */
+    @Column(name = "item_ids")
+    private String itemIds;
+
+    private Instant created;
+}
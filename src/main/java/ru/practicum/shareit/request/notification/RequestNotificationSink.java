@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.notification;
+
+import java.util.List;
+
+/**
+ * Получатель пачек уведомлений о новых запросах.
+ * Реализация выбирается свойством shareit.request-notifications.sink (log или outbox).
+ */
+public interface RequestNotificationSink {
+
+    void publish(List<RequestNotification> notifications);
+}
@@ -0,0 +1,238 @@
+package ru.practicum.shareit.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Заполнение БД синтетическими данными в профиле seed, до построения индексов в памяти.
+ * Пишет напрямую через JDBC пачками по shareit.seed.batch-size (с reWriteBatchedInserts это многострочные INSERT)
+ * с заранее вычисленными id, после чего сдвигает identity-колонки и items_seq за последний id.
+ * Перекос задается показателями распределения Ципфа: owner-skew - сколько вещей у самых активных владельцев,
+ * item-skew - насколько бронирования сосредоточены на популярных вещах (у них же самые длинные истории).
+ * Бронирования одной вещи не пересекаются и укладываются в окно от history-days назад до future-days вперед:
+ * окно делится между бронированиями вещи поровну, поэтому у популярных вещей бронирования короче.
+ */
+@Slf4j
+@Component
+@Profile("seed")
+public class SeedDataGenerator implements ApplicationRunner {
+
+    private static final double AVAILABLE_SHARE = 0.9;
+    private static final long MAX_BOOKING_SECONDS = Duration.ofDays(7).plusHours(1).toSeconds();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final double commentRatio;
+    private final double ownerSkew;
+    private final double itemSkew;
+    private final int historyDays;
+    private final int futureDays;
+    private final int batchSize;
+    private final long randomSeed;
+    private final boolean force;
+
+    public SeedDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             @Value("${shareit.seed.users:10000}") int users,
+                             @Value("${shareit.seed.items:20000}") int items,
+                             @Value("${shareit.seed.bookings:200000}") int bookings,
+                             @Value("${shareit.seed.comment-ratio:0.1}") double commentRatio,
+                             @Value("${shareit.seed.owner-skew:1.1}") double ownerSkew,
+                             @Value("${shareit.seed.item-skew:0.9}") double itemSkew,
+                             @Value("${shareit.seed.history-days:730}") int historyDays,
+                             @Value("${shareit.seed.future-days:90}") int futureDays,
+                             @Value("${shareit.seed.batch-size:5000}") int batchSize,
+                             @Value("${shareit.seed.random-seed:42}") long randomSeed,
+                             @Value("${shareit.seed.force:false}") boolean force) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.users = users;
+        this.items = items;
+        this.bookings = bookings;
+        this.commentRatio = commentRatio;
+        this.ownerSkew = ownerSkew;
+        this.itemSkew = itemSkew;
+        this.historyDays = historyDays;
+        this.futureDays = futureDays;
+        this.batchSize = batchSize;
+        this.randomSeed = randomSeed;
+        this.force = force;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existingUsers = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        if (existingUsers != null && existingUsers > 0 && !force) {
+            log.info("БД уже содержит {} пользователей, генерация пропущена (shareit.seed.force=false)", existingUsers);
+            return;
+        }
+        long startedAt = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        long userBase = maxId("users");
+        long itemBase = maxId("items");
+
+        seedUsers(userBase);
+        long[] ownerByItem = seedItems(itemBase, userBase, random);
+        long comments = seedBookingsAndComments(itemBase, userBase, ownerByItem, random);
+        resetIds(userBase + users, itemBase + items);
+
+        log.info("Сгенерировано пользователей: {}, вещей: {}, бронирований: {}, комментариев: {} за {} с",
+                users, items, bookings, comments, Duration.ofNanos(System.nanoTime() - startedAt).toSeconds());
+    }
+
+    private void seedUsers(long userBase) {
+        Batch batch = new Batch("insert into users (id, name, email) values (?, ?, ?)");
+        for (long id = userBase + 1; id <= userBase + users; id++) {
+            batch.add(id, "Пользователь " + id, "user" + id + "@seed.shareit.ru");
+        }
+        batch.flush();
+    }
+
+    private long[] seedItems(long itemBase, long userBase, SplittableRandom random) {
+        ZipfSampler owners = new ZipfSampler(users, ownerSkew);
+        long[] ownerByItem = new long[items];
+        Batch batch = new Batch("insert into items (id, owner_id, name, description, available) " +
+                "values (?, ?, ?, ?, ?)");
+        for (int i = 0; i < items; i++) {
+            long ownerId = userBase + 1 + owners.sample(random);
+            ownerByItem[i] = ownerId;
+            String noun = SeedVocabulary.pick(SeedVocabulary.NOUNS, random);
+            String adjective = SeedVocabulary.pick(SeedVocabulary.ADJECTIVES, random);
+            batch.add(itemBase + 1 + i, ownerId, noun + " " + adjective,
+                    adjective + " " + noun + " для аренды, " + SeedVocabulary.pick(SeedVocabulary.NOUNS, random)
+                            + " в комплекте", random.nextDouble() < AVAILABLE_SHARE);
+        }
+        batch.flush();
+        return ownerByItem;
+    }
+
+    private long seedBookingsAndComments(long itemBase, long userBase, long[] ownerByItem, SplittableRandom random) {
+        ZipfSampler hotItems = new ZipfSampler(items, itemSkew);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        long windowStart = now.minus(historyDays, ChronoUnit.DAYS).getEpochSecond();
+        long windowSeconds = now.plus(futureDays, ChronoUnit.DAYS).getEpochSecond() - windowStart;
+        int[] itemOfBooking = new int[bookings];
+        int[] bookingsOfItem = new int[items];
+        for (int i = 0; i < bookings; i++) {
+            itemOfBooking[i] = hotItems.sample(random);
+            bookingsOfItem[itemOfBooking[i]]++;
+        }
+        int[] placed = new int[items];
+
+        long bookingBase = maxId("bookings");
+        long commentBase = maxId("comments");
+        long comments = 0;
+        Batch bookingBatch = new Batch("insert into bookings (id, item_id, from_date, to_date, user_id, " +
+                "booking_status) values (?, ?, ?, ?, ?, ?)");
+        Batch commentBatch = new Batch("insert into comments (id, review, created, author_id, item_id) " +
+                "values (?, ?, ?, ?, ?)");
+        for (int i = 1; i <= bookings; i++) {
+            int item = itemOfBooking[i - 1];
+            long bookerId;
+            do {
+                bookerId = userBase + 1 + random.nextInt(users);
+            } while (bookerId == ownerByItem[item] && users > 1);
+            // Каждое бронирование лежит внутри своего слота, слоты вещи идут по порядку и не пересекаются
+            long slot = Math.max(windowSeconds / bookingsOfItem[item], 1);
+            long slotStart = windowStart + slot * placed[item]++;
+            long length = Math.min(slot, MAX_BOOKING_SECONDS);
+            long shortest = Math.min(length, Duration.ofHours(1).toSeconds());
+            long duration = shortest + random.nextLong(length - shortest + 1);
+            Instant start = Instant.ofEpochSecond(slotStart + random.nextLong(Math.max(slot - duration, 0) + 1));
+            Instant end = start.plusSeconds(duration);
+            BookingStatus status = status(start, end, now, random);
+            bookingBatch.add(bookingBase + i, itemBase + 1 + item, utc(start), utc(end), bookerId, status.name());
+
+            if (status == BookingStatus.APPROVED && end.isBefore(now) && random.nextDouble() < commentRatio) {
+                comments++;
+                commentBatch.add(commentBase + comments, SeedVocabulary.pick(SeedVocabulary.REVIEWS, random),
+                        utc(end.plus(1, ChronoUnit.HOURS)), bookerId, itemBase + 1 + item);
+            }
+        }
+        bookingBatch.flush();
+        commentBatch.flush();
+        restartIdentity("bookings", bookingBase + bookings);
+        restartIdentity("comments", commentBase + comments);
+        return comments;
+    }
+
+    private static BookingStatus status(Instant start, Instant end, Instant now, SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (end.isBefore(now)) {
+            return roll < 0.85 ? BookingStatus.APPROVED : roll < 0.95 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        if (start.isAfter(now)) {
+            return roll < 0.6 ? BookingStatus.APPROVED : BookingStatus.WAITING;
+        }
+        return BookingStatus.APPROVED;
+    }
+
+    /**
+     * Instant передается так же, как его связывает Hibernate (TIMESTAMP_UTC), чтобы значения читались одинаково.
+     */
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private void resetIds(long lastUserId, long lastItemId) {
+        restartIdentity("users", lastUserId);
+        // Hibernate (pooled, allocationSize = 50) выдает id из блока, заканчивающегося значением последовательности
+        jdbcTemplate.execute("alter sequence items_seq restart with " + (lastItemId + 50));
+    }
+
+    private void restartIdentity(String table, long lastId) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (lastId + 1));
+    }
+
+    /**
+     * Накопитель строк одного INSERT; каждая полная пачка пишется в своей транзакции.
+     */
+    private class Batch {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+            rows.clear();
+        }
+    }
+}
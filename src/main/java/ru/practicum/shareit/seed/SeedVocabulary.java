@@ -0,0 +1,29 @@
+package ru.practicum.shareit.seed;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Слова для названий и описаний сгенерированных вещей; нагрузочный прогон ищет по ним же.
+ */
+public class SeedVocabulary {
+
+    public static final List<String> NOUNS = List.of("дрель", "перфоратор", "шуруповерт", "лестница", "палатка",
+            "велосипед", "самокат", "байдарка", "спальник", "рюкзак", "мангал", "пылесос", "парогенератор",
+            "проектор", "колонка", "фотоаппарат", "объектив", "штатив", "лобзик", "болгарка", "генератор",
+            "компрессор", "тележка", "стремянка", "сноуборд", "лыжи", "коньки", "гитара", "синтезатор", "мультиварка");
+
+    public static final List<String> ADJECTIVES = List.of("ударная", "аккумуляторная", "профессиональный",
+            "складной", "туристический", "детский", "компактный", "мощный", "беспроводной", "электрический",
+            "горный", "надувная", "зимний", "летний", "новый", "легкий");
+
+    public static final List<String> REVIEWS = List.of("Все отлично, рекомендую", "Вещь в хорошем состоянии",
+            "Владелец на связи, передача без проблем", "Немного потерта, но работает", "Спасибо, пригодилось");
+
+    private SeedVocabulary() {
+    }
+
+    public static String pick(List<String> words, SplittableRandom random) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
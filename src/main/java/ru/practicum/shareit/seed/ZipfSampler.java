@@ -0,0 +1,30 @@
+package ru.practicum.shareit.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Выбор ранга 0..n-1 с вероятностью, пропорциональной 1 / (rank + 1)^skew.
+ * skew = 0 - равномерное распределение; чем больше skew, тем сильнее нагрузка сосредоточена на первых рангах.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double skew) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
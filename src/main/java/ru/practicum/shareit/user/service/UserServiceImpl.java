@@ -1,24 +1,53 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.interval.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.ExistingEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemETags;
+import ru.practicum.shareit.item.cache.ItemReadModelCache;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.notification.ItemKeywordIndex;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UpdatingUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.TransactionUtils;
 
 import java.util.List;
 
 @RequiredArgsConstructor
 @Service
 @Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceImpl implements UserService {
 
+    private static final String USERS_CACHE = "users";
+    private static final String USER_EXISTENCE_CACHE = "userExistence";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemETags itemETags;
+    private final ItemReadModelCache itemReadModelCache;
+    private final ItemKeywordIndex itemKeywordIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final BookingTimelineIndex bookingTimelineIndex;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -29,6 +58,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = false)
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
     public UserDto addUser(UserDto userDto) {
         existEmail(userDto.getEmail());
         User user = UserMapper.toEntity(userDto);
@@ -38,6 +68,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CachePut(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto updateUser(UpdatingUserDto userDto, Long userId) {
         User updatingUser = UserMapper.toEntity(getUserById(userId));
         if (!updatingUser.getEmail().equals(userDto.getEmail())) {
@@ -55,12 +86,23 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_CACHE, key = "#userId"),
+            @CacheEvict(cacheNames = USER_EXISTENCE_CACHE, key = "#userId")
+    })
     public void deleteUser(Long userId) {
         existUser(userId);
         userRepository.deleteById(userId);
+        itemETags.onUserDeleted();
+        itemReadModelCache.onUserDeleted();
+        itemKeywordIndex.onOwnerDeleted(userId);
+        itemAvailabilityIndex.onUserDeleted();
+        bookingTimelineIndex.onUserDeleted();
+        TransactionUtils.afterCommit(this::evictCascadedEntities);
     }
 
     @Override
+    @Cacheable(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto getUserById(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь c id=" + userId + " не существует"));
@@ -69,9 +111,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void existUser(Long userId) {
+        Cache users = cacheManager.getCache(USERS_CACHE);
+        Cache existence = cacheManager.getCache(USER_EXISTENCE_CACHE);
+        if ((users != null && users.get(userId) != null) || (existence != null && existence.get(userId) != null)) {
+            return;
+        }
+        // findById, а не existsById: поиск по ключу обслуживается вторым уровнем кэша Hibernate, count-запрос - нет
         if (userRepository.findById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь c id=" + userId + " не существует");
         }
+        if (existence != null) {
+            existence.put(userId, Boolean.TRUE);
+        }
     }
 
     private void existEmail(String email) {
@@ -79,4 +130,15 @@ public class UserServiceImpl implements UserService {
             throw new ExistingEmailException("Пользователь с email=" + email + " уже существует");
         }
     }
+
+    /**
+     * Вещи, бронирования и комментарии пользователя удаляет каскад БД, мимо Hibernate, поэтому второй уровень
+     * кэша продолжал бы отдавать их; сбрасываются все регионы с такими записями, id которых здесь неизвестны.
+     */
+    private void evictCascadedEntities() {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(Comment.class);
+        cache.evictQueryRegion(ItemRepository.OWNER_ITEMS_REGION);
+    }
 }
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.NotMetConditions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче, отсортированной по (время desc, id desc): бронирования по start, запросы по created.
+ * Клиенту передается в виде непрозрачной строки.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Размер страницы, если клиент не передал limit, и наибольший допустимый limit.
+     */
+    public static final String DEFAULT_LIMIT = "20";
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Позиция перед первой страницей: все реальные записи меньше нее.
+     */
+    public static final KeysetCursor FIRST = new KeysetCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    private Instant position;
+
+    private Long id;
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(Instant.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new NotMetConditions("Неправильный параметр запроса (cursor)");
+        }
+    }
+
+    public String encode() {
+        String raw = position.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,10 @@
+-- Booker access path: /bookings?state=..., ordered by (start, id) desc
+CREATE INDEX idx_bookings_booker_start ON bookings (user_id, from_date DESC, id DESC);
+CREATE INDEX idx_bookings_booker_status_start ON bookings (user_id, booking_status, from_date DESC, id DESC);
+
+-- Owner access path: items of the owner, then their bookings by start
+CREATE INDEX idx_items_owner ON items (owner_id);
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, from_date DESC, id DESC);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, booking_status, from_date DESC, id DESC);
+
+CREATE INDEX idx_comments_item ON comments (item_id);
@@ -0,0 +1,2 @@
+-- Comment authorization: approved booking of the item by the user that has already ended
+CREATE INDEX idx_bookings_booker_item_status_end ON bookings (user_id, item_id, booking_status, to_date);
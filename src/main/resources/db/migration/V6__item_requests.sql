@@ -0,0 +1,18 @@
+CREATE TABLE requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  requester_id BIGINT NOT NULL,
+  created TIMESTAMP NOT NULL,
+  CONSTRAINT pk_request PRIMARY KEY (id),
+  CONSTRAINT fk_request_requester FOREIGN KEY (requester_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+ALTER TABLE items ADD COLUMN request_id BIGINT;
+ALTER TABLE items ADD CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL;
+
+-- Own and others' request pages, ordered by (created, id) desc
+CREATE INDEX idx_requests_requester_created ON requests (requester_id, created DESC, id DESC);
+CREATE INDEX idx_requests_created ON requests (created DESC, id DESC);
+
+-- Answers for a page of requests are loaded by request_id in one query
+CREATE INDEX idx_items_request ON items (request_id);
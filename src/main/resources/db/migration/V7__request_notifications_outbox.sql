@@ -0,0 +1,15 @@
+-- Outbox for new-request notifications (shareit.request-notifications.sink=outbox)
+CREATE SEQUENCE request_notifications_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE request_notifications (
+  id BIGINT NOT NULL,
+  request_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  item_ids VARCHAR(512) NOT NULL,
+  created TIMESTAMP NOT NULL,
+  CONSTRAINT pk_request_notification PRIMARY KEY (id),
+  CONSTRAINT fk_request_notification_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+  CONSTRAINT fk_request_notification_owner FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_request_notifications_created ON request_notifications (created, id);
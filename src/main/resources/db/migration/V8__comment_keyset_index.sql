@@ -0,0 +1,3 @@
+-- Comment pages of an item, ordered by (created, id) desc; also serves the per-item comment counts
+CREATE INDEX idx_comments_item_created ON comments (item_id, created DESC, id DESC);
+DROP INDEX idx_comments_item;
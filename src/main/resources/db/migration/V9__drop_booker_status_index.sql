@@ -0,0 +1,4 @@
+-- Booking lists are filtered by state in memory (BookingTimelineIndex); a booker's timeline is read through
+-- idx_bookings_booker_start, so no query looks up a booker's bookings by status any more.
+-- idx_bookings_item_status_start stays: it serves the overlap check and the active periods of an item.
+DROP INDEX idx_bookings_booker_status_start;
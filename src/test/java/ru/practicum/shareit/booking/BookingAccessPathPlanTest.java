@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Регрессия планов: запросы репозиториев по бронированиям, вещам, комментариям и запросам
+ * на заполненной БД не должны переходить к полному просмотру таблиц.
+ * SQL берется тот, что реально сгенерировал Hibernate (статистика запросов H2), и проверяется через EXPLAIN.
+ */
+@SpringBootTest
+class BookingAccessPathPlanTest {
+
+    /**
+     * Явные id далеко за пределами тех, что выдают identity и items_seq другим тестам в том же контексте.
+     */
+    private static final long BASE_ID = 1_000_000;
+    private static final int USERS = 200;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+    private static final int COMMENTS = 3_000;
+    private static final int REQUESTS = 500;
+    private static final List<String> TABLES = List.of("BOOKINGS", "ITEMS", "COMMENTS", "REQUESTS");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from users where id > ?", Long.class, BASE_ID) > 0) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        Instant now = Instant.now();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{BASE_ID + i, "Пользователь " + i, "plan" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{BASE_ID + i, "Нужна вещь " + i, userId(random),
+                    Timestamp.from(now.minus(Duration.ofMinutes(random.nextInt(100_000))))});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{BASE_ID + i, BASE_ID + 1 + i % USERS, "Вещь " + i, "Описание " + i, true,
+                    i % 10 == 0 ? BASE_ID + 1 + random.nextInt(REQUESTS) : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, owner_id, name, description, available, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            Instant start = now.plus(Duration.ofHours(random.nextInt(-24 * 365, 24 * 90)));
+            bookings.add(new Object[]{BASE_ID + i, itemId(random), Timestamp.from(start),
+                    Timestamp.from(start.plus(Duration.ofHours(1 + random.nextInt(24 * 7)))), userId(random),
+                    statuses[random.nextInt(statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, item_id, from_date, to_date, user_id, booking_status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{BASE_ID + i, "Отзыв " + i,
+                    Timestamp.from(now.minus(Duration.ofMinutes(random.nextInt(100_000)))), userId(random),
+                    itemId(random)});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (id, review, created, author_id, item_id) " +
+                "values (?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Instant now = Instant.now();
+        long userId = BASE_ID + 7;
+        long itemId = BASE_ID + 7;
+        KeysetCursor first = KeysetCursor.FIRST;
+
+        jdbcTemplate.execute("set query_statistics_max_entries 1000");
+        jdbcTemplate.execute("set query_statistics true");
+        try {
+            bookingRepository.findTimelineByBooker(userId);
+            bookingRepository.findTimelineByOwner(userId);
+            bookingRepository.findAllWithItemAndBookerByIdIn(List.of(BASE_ID + 1, BASE_ID + 2));
+            bookingRepository.existsOverlappingBooking(itemId, now, now.plus(Duration.ofDays(1)));
+            bookingRepository.findActivePeriodsByItemId(itemId, now);
+            bookingRepository.existsByBookerIdAndItemIdAndBookingStatusAndEndBefore(userId, itemId,
+                    BookingStatus.APPROVED, now);
+            bookingRepository.findBookingBoundsByItemIds(List.of(itemId, itemId + 1), now);
+            itemRepository.findAllByOwnerId(userId);
+            itemRepository.findAllByRequestIdIn(List.of(BASE_ID + 1, BASE_ID + 2));
+            commentRepository.getCommentsByItem(itemId, first.getPosition(), first.getId(), Limit.of(20));
+            commentRepository.countByItemIds(List.of(itemId, itemId + 1));
+            itemRequestRepository.getRequestsByRequester(userId, first.getPosition(), first.getId(), Limit.of(20));
+        } finally {
+            jdbcTemplate.execute("set query_statistics false");
+        }
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (String sql : jdbcTemplate.queryForList("select sql_statement from information_schema.query_statistics",
+                String.class)) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT);
+            if (normalized.startsWith("select") && !normalized.contains("information_schema")) {
+                plans.put(sql, explain(sql));
+            }
+        }
+
+        assertTrue(plans.size() >= 12, "Запросов репозиториев не найдено в статистике H2: " + plans.keySet());
+        plans.forEach((sql, plan) -> TABLES.forEach(table -> assertFalse(
+                plan.toUpperCase(Locale.ROOT).contains("." + table + ".TABLESCAN"),
+                "Полный просмотр " + table + ":\n" + plan)));
+    }
+
+    /**
+     * План без выполнения: параметры нужны только для подготовки оператора, их значения на план H2 не влияют.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static long userId(SplittableRandom random) {
+        return BASE_ID + 1 + random.nextInt(USERS);
+    }
+
+    private static long itemId(SplittableRandom random) {
+        return BASE_ID + 1 + random.nextInt(ITEMS);
+    }
+}
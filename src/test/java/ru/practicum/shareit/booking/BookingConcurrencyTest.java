@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dal.BookingPeriod;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Конкурентные бронирования нескольких вещей: сколько бы клиентов ни бронировало одновременно,
+ * в БД не должно оказаться пересекающихся бронирований одной вещи в статусах WAITING и APPROVED.
+ */
+@Slf4j
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final int CLIENTS = 64;
+    private static final int ATTEMPTS_PER_CLIENT = 10;
+    private static final int ITEMS = 4;
+    private static final int WINDOW_HOURS = 48;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void concurrentBookingsOfOneItemNeverOverlap() throws Exception {
+        User owner = userRepository.save(newUser());
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(new Item(null, owner.getId(), "Вещь " + i, "Описание", true, null))
+                    .getId());
+        }
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            bookerIds.add(userRepository.save(newUser()).getId());
+        }
+        LocalDateTime windowStart = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> clients = new ArrayList<>();
+        try {
+            for (int client = 0; client < CLIENTS; client++) {
+                Long bookerId = bookerIds.get(client);
+                SplittableRandom random = new SplittableRandom(client);
+                clients.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_CLIENT; attempt++) {
+                        Long itemId = itemIds.get(random.nextInt(ITEMS));
+                        LocalDateTime start = windowStart.plusHours(random.nextInt(WINDOW_HOURS));
+                        LocalDateTime end = start.plusHours(1 + random.nextInt(6));
+                        try {
+                            bookingService.createBooking(new BookingDto(null, itemId, start, end, null, null),
+                                    bookerId);
+                            created.incrementAndGet();
+                        } catch (BookingConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> client : clients) {
+                client.get(2, TimeUnit.MINUTES);
+            }
+            long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 1);
+            log.info("{} клиентов: {} бронирований, {} конфликтов за {} мс ({} попыток/с)", CLIENTS, created.get(),
+                    conflicts.get(), elapsedMillis, CLIENTS * ATTEMPTS_PER_CLIENT * 1000L / elapsedMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(CLIENTS * ATTEMPTS_PER_CLIENT, created.get() + conflicts.get());
+        assertTrue(created.get() > 0, "Ни одного бронирования не создано");
+        assertTrue(conflicts.get() > 0, "Клиенты не конкурировали за одно время");
+        int stored = 0;
+        for (Long itemId : itemIds) {
+            List<BookingPeriod> periods = bookingRepository.findActivePeriodsByItemId(itemId, Instant.EPOCH);
+            for (int i = 1; i < periods.size(); i++) {
+                BookingPeriod previous = periods.get(i - 1);
+                BookingPeriod next = periods.get(i);
+                assertFalse(previous.getEnd().isAfter(next.getStart()), "Пересекающиеся бронирования вещи id="
+                        + itemId + ": " + previous.getStart() + "-" + previous.getEnd() + " и "
+                        + next.getStart() + "-" + next.getEnd());
+            }
+            stored += periods.size();
+        }
+        assertEquals(created.get(), stored);
+    }
+
+    private static User newUser() {
+        return new User(null, "Пользователь", UUID.randomUUID() + "@example.com");
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Число SQL-операторов выдачи бронирований не зависит от числа строк: автор и вещь читаются вместе с бронированием.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingListStatementCountTest {
+
+    private static final int FEW = 6;
+    private static final int MANY = 60;
+    private static final int PAGE = 100;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookerListStatementCountDoesNotGrowWithRows(BookingState state) {
+        Fixture few = createBookings(FEW);
+        Fixture many = createBookings(MANY);
+
+        long fewStatements = countStatements(() ->
+                bookingService.getAllBookingByUser(few.bookerId(), state.name(), null, PAGE));
+        long manyStatements = countStatements(() ->
+                bookingService.getAllBookingByUser(many.bookerId(), state.name(), null, PAGE));
+
+        assertEquals(fewStatements, manyStatements);
+        assertEquals(MANY, bookingService.getAllBookingByUser(many.bookerId(), "ALL", null, PAGE)
+                .getBookings().size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void ownerListStatementCountDoesNotGrowWithRows(BookingState state) {
+        Fixture few = createBookings(FEW);
+        Fixture many = createBookings(MANY);
+
+        long fewStatements = countStatements(() ->
+                bookingService.getAllBookingByOwner(few.ownerId(), state.name(), null, PAGE));
+        long manyStatements = countStatements(() ->
+                bookingService.getAllBookingByOwner(many.ownerId(), state.name(), null, PAGE));
+
+        assertEquals(fewStatements, manyStatements);
+        assertEquals(MANY, bookingService.getAllBookingByOwner(many.ownerId(), "ALL", null, PAGE)
+                .getBookings().size());
+    }
+
+    private long countStatements(Supplier<BookingPageDto> call) {
+        long before = statistics.getPrepareStatementCount();
+        BookingPageDto page = call.get();
+        long statements = statistics.getPrepareStatementCount() - before;
+        // Проверка пользователя, лента и страница бронирований вместе с вещами и авторами
+        assertTrue(statements <= 3, "Выдача " + page.getBookings().size() + " бронирований заняла "
+                + statements + " SQL-операторов");
+        return statements;
+    }
+
+    /**
+     * Бронирования одного автора на вещи одного владельца: прошедшие, текущие и будущие во всех статусах.
+     */
+    private Fixture createBookings(int count) {
+        User owner = userRepository.save(newUser());
+        User booker = userRepository.save(newUser());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        BookingStatus[] statuses = {BookingStatus.WAITING, BookingStatus.APPROVED, BookingStatus.REJECTED};
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(new Item(null, owner.getId(), "Вещь " + i, "Описание", true, null));
+            Instant start = now.plus(Duration.ofDays(i - count / 2));
+            bookings.add(new Booking(null, item, start, start.plus(Duration.ofHours(36)), booker,
+                    statuses[i % statuses.length]));
+        }
+        bookingRepository.saveAll(bookings);
+        return new Fixture(owner.getId(), booker.getId());
+    }
+
+    private static User newUser() {
+        return new User(null, "Пользователь", UUID.randomUUID() + "@example.com");
+    }
+
+    private record Fixture(Long ownerId, Long bookerId) {
+    }
+}
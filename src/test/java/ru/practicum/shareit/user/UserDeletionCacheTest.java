@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Вещи владельца удаляются каскадом БД; после удаления владельца они не должны отдаваться
+ * ни из кэшей в памяти, ни из второго уровня кэша Hibernate.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserDeletionCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void itemOfDeletedOwnerIsNotFound() throws Exception {
+        UserDto owner = userService.addUser(new UserDto(null, "Владелец", UUID.randomUUID() + "@example.com"));
+        UserDto other = userService.addUser(new UserDto(null, "Другой", UUID.randomUUID() + "@example.com"));
+        Long itemId = itemService.addItem(new ItemDto(null, null, "Дрель", "Ударная дрель", true, null),
+                owner.getId()).getId();
+
+        // Карточка вещи, сама вещь и список вещей владельца попадают в кэши
+        mockMvc.perform(get("/items/{itemId}", itemId)).andExpect(status().isOk());
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk());
+        assertTrue(itemRepository.findById(itemId).isPresent());
+
+        mockMvc.perform(delete("/users/{userId}", owner.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}", itemId)).andExpect(status().isNotFound());
+        assertTrue(itemRepository.findById(itemId).isEmpty());
+        assertTrue(itemRepository.findAllByOwnerId(owner.getId()).isEmpty());
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Перфоратор\"}"))
+                .andExpect(status().isNotFound());
+    }
+}